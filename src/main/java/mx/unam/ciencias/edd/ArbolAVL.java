@@ -42,11 +42,20 @@ public class ArbolAVL<T extends Comparable<T>>
             return String.format("%s %d/%d", elemento.toString(), altura, balance());
         }
 
+        /* Regresa el balance con las alturas guardadas en los hijos. */
         private int balance() {
             int alturaIzquierdo = (this.izquierdo != null) ? this.izquierdo.altura() : -1;
             int alturaDerecho = (this.derecho != null) ? this.derecho.altura() : -1;
             return alturaIzquierdo - alturaDerecho;
         }
+
+        /* Actualiza la altura con las alturas guardadas en los hijos, sin
+           recorrer el subárbol. */
+        private void actualizaAltura() {
+            int alturaIzquierdo = (this.izquierdo != null) ? this.izquierdo.altura() : -1;
+            int alturaDerecho = (this.derecho != null) ? this.derecho.altura() : -1;
+            altura = 1 + Math.max(alturaIzquierdo, alturaDerecho);
+        }
         
 
         /**
@@ -65,10 +74,6 @@ public class ArbolAVL<T extends Comparable<T>>
             @SuppressWarnings("unchecked") VerticeAVL vertice = (VerticeAVL)objeto;
             return (altura == vertice.altura && super.equals(objeto));
         }
-
-        private int alturaSuper() {
-            return super.altura();
-        }
     }
 
     /**
@@ -86,6 +91,19 @@ public class ArbolAVL<T extends Comparable<T>>
         super(coleccion);
     }
 
+    /**
+     * Construye un árbol AVL a partir de una colección. Si la colección está
+     * ordenada, el árbol se construye en tiempo <i>O</i>(<i>n</i>) sin
+     * rebalancear.
+     * @param coleccion la colección a partir de la cual creamos el árbol AVL.
+     * @param ordenada si la colección está ordenada.
+     * @throws IllegalArgumentException si la colección no está ordenada y se
+     *         dijo que lo estaba.
+     */
+    public ArbolAVL(Coleccion<T> coleccion, boolean ordenada) {
+        super(coleccion, ordenada);
+    }
+
     /**
      * Construye un nuevo vértice, usando una instancia de {@link VerticeAVL}.
      * @param elemento el elemento dentro del vértice.
@@ -95,6 +113,18 @@ public class ArbolAVL<T extends Comparable<T>>
         return new VerticeAVL(elemento);
     }
 
+    /**
+     * Calcula la altura del vértice construido a partir de las de sus hijos.
+     * El árbol construido tiene todas sus hojas en los dos últimos niveles,
+     * así que ya está balanceado.
+     * @param vertice el vértice construido.
+     * @param profundidad la profundidad del vértice.
+     * @param altura la altura del árbol construido.
+     */
+    @Override protected void ajustaConstruido(Vertice vertice, int profundidad, int altura) {
+        ((VerticeAVL)vertice).actualizaAltura();
+    }
+
     /**
      * Agrega un nuevo elemento al árbol. El método invoca al método {@link
      * ArbolBinarioOrdenado#agrega}, y después balancea el árbol girándolo como
@@ -128,74 +158,44 @@ public class ArbolAVL<T extends Comparable<T>>
     }
 
     private void eliminaHoja(Vertice vertice) {
-        if (raiz == vertice) {
-            raiz = null;
-            ultimoAgregado = null;
-        } else if (esDerecho(vertice)) vertice.padre.derecho = null;
-        else vertice.padre.izquierdo = null;
+        if (raiz == vertice) ultimoAgregado = null;
+        eliminaVertice(vertice);
     }
 
-    private boolean esDerecho(Vertice vertice){
-        return vertice.padre.derecho == vertice;
-    }
 
+    /* Sube desde el vértice hasta la raíz actualizando las alturas con las
+       de los hijos y girando donde el balance es -2 o 2. */
     private void rebalanceo(VerticeAVL vertice){
-        if (vertice == null) return;
-         
-        vertice.altura = vertice.alturaSuper();
-        int balance = vertice.balance();
-        boolean cambio = false;
-        Vertice padre = vertice.padre;
-         
-        if (balance == -2){
-            VerticeAVL q = (VerticeAVL) vertice.derecho;
-            VerticeAVL x = (VerticeAVL) q.izquierdo;
-            VerticeAVL y = (VerticeAVL) q.derecho;
-
-            if (q.balance() == 1){
-                super.giraDerecha(q);
-                q.altura = q.alturaSuper();
-                x.altura = x.alturaSuper();
-            }
-            q = (VerticeAVL) vertice.derecho;
-            balance = q.balance();
-
-            if (balance == 0 || balance == -1 || balance == -2){
+        while (vertice != null) {
+            vertice.actualizaAltura();
+            int balance = vertice.balance();
+
+            if (balance == -2){
+                VerticeAVL q = (VerticeAVL) vertice.derecho;
+                if (q.balance() == 1){
+                    super.giraDerecha(q);
+                    q.actualizaAltura();
+                    ((VerticeAVL) q.padre).actualizaAltura();
+                }
                 super.giraIzquierda(vertice);
-                vertice.altura = vertice.alturaSuper();
-                q.altura = q.alturaSuper();
-                cambio = true;
-            }
-
-            if (cambio) padre = q.padre;
-            else padre = vertice.padre;
-            
-        } else if (balance == 2){
-            VerticeAVL p = (VerticeAVL) vertice.izquierdo;
-            VerticeAVL x = (VerticeAVL) p.derecho;
-            VerticeAVL y = (VerticeAVL) p.izquierdo;
-
-            if (p.balance() == -1){
-                super.giraIzquierda(p);
-                p.altura = p.alturaSuper();
-                x.altura = x.alturaSuper();
-            }
-
-            p = (VerticeAVL) vertice.izquierdo;
-            balance = p.balance();
-
-            if (balance == 0 || balance == 1  || balance == 2){
+                vertice.actualizaAltura();
+                vertice = (VerticeAVL) vertice.padre;
+                vertice.actualizaAltura();
+            } else if (balance == 2){
+                VerticeAVL p = (VerticeAVL) vertice.izquierdo;
+                if (p.balance() == -1){
+                    super.giraIzquierda(p);
+                    p.actualizaAltura();
+                    ((VerticeAVL) p.padre).actualizaAltura();
+                }
                 super.giraDerecha(vertice);
-                vertice.altura = vertice.alturaSuper();
-                p.altura = p.alturaSuper();
-                cambio = true;
+                vertice.actualizaAltura();
+                vertice = (VerticeAVL) vertice.padre;
+                vertice.actualizaAltura();
             }
 
-            if (cambio) padre = p.padre;
-            else padre = vertice.padre;
+            vertice = (VerticeAVL) vertice.padre;
         }
-
-        rebalanceo((VerticeAVL) padre);
     } 
 
 
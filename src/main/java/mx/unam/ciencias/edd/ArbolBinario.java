@@ -23,6 +23,9 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
         protected Vertice izquierdo;
         /** El derecho del vértice. */
         protected Vertice derecho;
+        /** El número de vértices en el subárbol del vértice; lo mantienen
+            los árboles binarios ordenados. */
+        protected int tamano;
 
         /**
          * Constructor único que recibe un elemento.
@@ -30,6 +33,7 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
          */
         protected Vertice(T elemento) {
             this.elemento = elemento;
+            this.tamano = 1;
         }
 
         /**
@@ -97,11 +101,33 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
             return altura(this);
         }
 
+        /**
+         * Método auxiliar para obtener la altura. Recorre el subárbol en
+         * pre-order subiendo por los padres, así que no usa pila ni recursión.
+         * @param v vértice al que le sacaremos la altura
+         * @return la altura del vértice
+         */
         private int altura(Vertice v){
-            if(v == null) return -1;
-            int altDer = v.hayDerecho() ? v.derecho.altura() : -1;
-            int altIzq = v.hayIzquierdo() ? v.izquierdo.altura() : -1;
-            return 1 + (altDer > altIzq ? altDer : altIzq);
+            int altura = 0, nivel = 0;
+            Vertice actual = v;
+
+            while (true) {
+                if (actual.izquierdo != null) {
+                    actual = actual.izquierdo;
+                    nivel++;
+                } else if (actual.derecho != null) {
+                    actual = actual.derecho;
+                    nivel++;
+                } else {
+                    while (actual != v && (actual.padre.derecho == actual || actual.padre.derecho == null)) {
+                        actual = actual.padre;
+                        nivel--;
+                    }
+                    if (actual == v) return altura;
+                    actual = actual.padre.derecho;
+                }
+                if (nivel > altura) altura = nivel;
+            }
         }
 
         /**
@@ -120,7 +146,10 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
          */
 
          private int profundidad(Vertice v) {
-            return (v.padre == null ? 0 : 1 + v.padre.profundidad());
+            int profundidad = 0;
+            for (Vertice actual = v.padre; actual != null; actual = actual.padre)
+                profundidad++;
+            return profundidad;
         }
 
         /**
@@ -151,7 +180,7 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
 
         /**
          * Método auxiliar de equals
-         * Regresa la profundidad del vértice
+         * Recorre los dos subárboles a la par con una pila.
          * @param x vertice del arbol original
          * @param y vértice del arbol que compararemos
          * @return <code>true</code> si los vertices son iguales
@@ -160,13 +189,30 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
 
          private boolean auxEquals(Vertice x, Vertice y){
             if(x == null && y == null) return true;
-
             if(x == null || y == null) return false;
 
-            if(x.elemento.equals(y.elemento))
-                return auxEquals(x.izquierdo, y.izquierdo) &&
-                auxEquals(x.derecho, y.derecho);
-            else return false;
+            Pila<Vertice> pila = new Pila<>();
+            pila.mete(x);
+            pila.mete(y);
+
+            while (!pila.esVacia()) {
+                Vertice b = pila.saca();
+                Vertice a = pila.saca();
+
+                if(!a.elemento.equals(b.elemento)) return false;
+                if((a.izquierdo == null) != (b.izquierdo == null)) return false;
+                if((a.derecho == null) != (b.derecho == null)) return false;
+
+                if(a.derecho != null) {
+                    pila.mete(a.derecho);
+                    pila.mete(b.derecho);
+                }
+                if(a.izquierdo != null) {
+                    pila.mete(a.izquierdo);
+                    pila.mete(b.izquierdo);
+                }
+            }
+            return true;
         }
 
         /**
@@ -250,18 +296,24 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
     }
 
     /**
-     * Metodo auxiliar de busqueda
-     * @param v vertice sobre el que haremos recursión
+     * Metodo auxiliar de busqueda. Recorre el árbol en pre-order con una pila.
+     * @param v vertice desde el que buscamos
      * @param e elemento que estamos buscando en el arbol
      * @return un vértice que contiene el elemento buscado si lo encuentra;
      * <code>null</code> en otro caso.
      */
     private VerticeArbolBinario<T> busca(Vertice v, T elemento){
         if(v == null) return null;
-        if(v.elemento.equals(elemento)) return v;
-        VerticeArbolBinario<T> izq = busca(v.izquierdo,elemento);
-        VerticeArbolBinario<T> der = busca(v.derecho, elemento);
-        return izq != null ? izq : der;
+
+        Pila<Vertice> pila = new Pila<>();
+        pila.mete(v);
+        while (!pila.esVacia()) {
+            Vertice actual = pila.saca();
+            if(actual.elemento.equals(elemento)) return actual;
+            if(actual.derecho != null) pila.mete(actual.derecho);
+            if(actual.izquierdo != null) pila.mete(actual.izquierdo);
+        }
+        return null;
     }
 
     /**
@@ -315,36 +367,56 @@ public abstract class ArbolBinario<T> implements Coleccion<T> {
      */
     @Override public String toString() {
         if(esVacia()) return "";
-        return auxToString(raiz, 0, new boolean[altura()+1]);
-    }
 
-    private String auxToString(Vertice vertice, int nivel, boolean[] arreglo){
-        String str = vertice.toString() + "\n";
-        arreglo[nivel] = true;
-
-        if (vertice.izquierdo != null && vertice.derecho != null) {
-            str += dibujaEspacios(nivel, arreglo) + "├─›";
-            str += auxToString(vertice.izquierdo, nivel + 1, arreglo);
-            str += dibujaEspacios(nivel, arreglo) + "└─»";
-            arreglo[nivel] = false;
-            str += auxToString(vertice.derecho, nivel + 1, arreglo);
-        } else if (vertice.izquierdo != null) {
-            str += dibujaEspacios(nivel, arreglo) + "└─›";
-            arreglo[nivel] = false;
-            str += auxToString(vertice.izquierdo, nivel + 1, arreglo);
-        } else if (vertice.derecho != null) {
-            str += dibujaEspacios(nivel, arreglo) + "└─»";
-            arreglo[nivel] = false;
-            str += auxToString(vertice.derecho, nivel + 1, arreglo);
+        StringBuilder str = new StringBuilder();
+        boolean[] arreglo = new boolean[altura()+1];
+        Pila<Marco> pila = new Pila<>();
+        pila.mete(new Marco(raiz(), 0, "", false));
+
+        while (!pila.esVacia()) {
+            Marco marco = pila.saca();
+            VerticeArbolBinario<T> vertice = marco.vertice;
+            int nivel = marco.nivel;
+
+            str.append(marco.prefijo);
+            if (marco.apaga) arreglo[nivel - 1] = false;
+            str.append(vertice.toString()).append("\n");
+            arreglo[nivel] = true;
+
+            String espacios = dibujaEspacios(nivel, arreglo);
+            if (vertice.hayIzquierdo() && vertice.hayDerecho()) {
+                pila.mete(new Marco(vertice.derecho(), nivel + 1, espacios + "└─»", true));
+                pila.mete(new Marco(vertice.izquierdo(), nivel + 1, espacios + "├─›", false));
+            } else if (vertice.hayIzquierdo()) {
+                pila.mete(new Marco(vertice.izquierdo(), nivel + 1, espacios + "└─›", true));
+            } else if (vertice.hayDerecho()) {
+                pila.mete(new Marco(vertice.derecho(), nivel + 1, espacios + "└─»", true));
+            }
         }
 
-        return str;
+        return str.toString();
+    }
+
+    /* Vértice pendiente de la representación en cadena, con la línea que va
+       antes de él y si apaga la línea vertical de su padre. */
+    private class Marco {
+        private VerticeArbolBinario<T> vertice;
+        private int nivel;
+        private String prefijo;
+        private boolean apaga;
+
+        private Marco(VerticeArbolBinario<T> vertice, int nivel, String prefijo, boolean apaga) {
+            this.vertice = vertice;
+            this.nivel = nivel;
+            this.prefijo = prefijo;
+            this.apaga = apaga;
+        }
     }
 
     private String dibujaEspacios(int nivel, boolean[] array){
-        String s = "";
-        for (int i = 0; i < nivel; i++) s += array[i] ? "│  " : "   ";
-        return s;
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < nivel; i++) s.append(array[i] ? "│  " : "   ");
+        return s.toString();
     }
 
     /**
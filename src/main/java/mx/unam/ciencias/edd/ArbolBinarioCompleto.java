@@ -1,46 +1,148 @@
 package mx.unam.ciencias.edd;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * <p>Clase para árboles binarios completos.</p>
  *
  * <p>Un árbol binario completo agrega y elimina elementos de tal forma que el
  * árbol siempre es lo más cercano posible a estar lleno.</p>
+ *
+ * <p>Como el árbol siempre es completo, sus elementos se guardan en un arreglo
+ * en orden BFS: los hijos del elemento en la posición <em>i</em> están en las
+ * posiciones 2<em>i</em>+1 y 2<em>i</em>+2, y su padre en
+ * (<em>i</em>-1)/2. Agregar al final y eliminar el último toman tiempo
+ * constante, y el árbol no crea un vértice por elemento: los vértices que
+ * regresa son vistas de una posición del arreglo.</p>
  */
 public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
 
     /* Clase interna privada para iteradores. */
     private class Iterador implements Iterator<T> {
 
-        /* Cola para recorrer los vértices en BFS. */
-        private Cola<Vertice> cola;
-
-        /* Inicializa al iterador. */
-        private Iterador() {
-            cola = new Cola<>();
-            if(!esVacia()) cola.mete(raiz);
-        }
+        /* Índice del siguiente elemento en orden BFS. */
+        private int indice;
 
         /* Nos dice si hay un elemento siguiente. */
         @Override public boolean hasNext() {
-            return !cola.esVacia();
+            return indice < elementos;
         }
 
         /* Regresa el siguiente elemento en orden BFS. */
         @Override public T next() {
-            Vertice v = cola.saca();
-            if(v.hayIzquierdo()) cola.mete(v.izquierdo);
-            if(v.hayDerecho()) cola.mete(v.derecho);
-            return v.elemento;
+            if(!hasNext()) throw new NoSuchElementException("No hay elemento siguiente");
+            return arreglo[indice++];
+        }
+    }
+
+    /* Clase interna privada para vértices, que son una posición del arreglo. */
+    private class VerticeIndice implements VerticeArbolBinario<T> {
+
+        /* La posición del vértice en el arreglo. */
+        private int indice;
+
+        /* Crea la vista de la posición recibida. */
+        private VerticeIndice(int indice) {
+            this.indice = indice;
+        }
+
+        /* Nos dice si el vértice tiene padre. */
+        @Override public boolean hayPadre() {
+            return indice > 0;
+        }
+
+        /* Nos dice si el vértice tiene hijo izquierdo. */
+        @Override public boolean hayIzquierdo() {
+            return 2 * indice + 1 < elementos;
+        }
+
+        /* Nos dice si el vértice tiene hijo derecho. */
+        @Override public boolean hayDerecho() {
+            return 2 * indice + 2 < elementos;
+        }
+
+        /* Regresa el padre del vértice. */
+        @Override public VerticeArbolBinario<T> padre() {
+            if(!hayPadre()) throw new NoSuchElementException("No hay padre");
+            return new VerticeIndice((indice - 1) / 2);
+        }
+
+        /* Regresa el hijo izquierdo del vértice. */
+        @Override public VerticeArbolBinario<T> izquierdo() {
+            if(!hayIzquierdo()) throw new NoSuchElementException("No hay izquierdo");
+            return new VerticeIndice(2 * indice + 1);
+        }
+
+        /* Regresa el hijo derecho del vértice. */
+        @Override public VerticeArbolBinario<T> derecho() {
+            if(!hayDerecho()) throw new NoSuchElementException("No hay derecho");
+            return new VerticeIndice(2 * indice + 2);
+        }
+
+        /* Regresa la altura del vértice, que es la de su rama más izquierda. */
+        @Override public int altura() {
+            int altura = 0;
+            for(long i = 2L * indice + 1; i < elementos; i = 2 * i + 1) altura++;
+            return altura;
+        }
+
+        /* Regresa la profundidad del vértice, ⌊log₂(i+1)⌋. */
+        @Override public int profundidad() {
+            return 31 - Integer.numberOfLeadingZeros(indice + 1);
+        }
+
+        /* Regresa el elemento del vértice. */
+        @Override public T get() {
+            return arreglo[indice];
+        }
+
+        /* Compara el subárbol del vértice con el de otro, nivel por nivel: en
+           cada nivel los dos subárboles ocupan un rango contiguo del arreglo. */
+        @Override public boolean equals(Object objeto) {
+            if (objeto == null || getClass() != objeto.getClass())
+                return false;
+            @SuppressWarnings("unchecked") VerticeIndice vertice = (VerticeIndice)objeto;
+            ArbolBinarioCompleto<T> otro = vertice.arbol();
+
+            long a = indice, b = vertice.indice;
+            for(long ancho = 1; a < elementos || b < otro.elementos; ancho *= 2) {
+                long finA = Math.min(a + ancho, elementos);
+                long finB = Math.min(b + ancho, otro.elementos);
+                if(finA - a != finB - b) return false;
+                for(long i = a, j = b; i < finA; i++, j++)
+                    if(!arreglo[(int)i].equals(otro.arreglo[(int)j])) return false;
+                a = 2 * a + 1;
+                b = 2 * b + 1;
+            }
+            return true;
+        }
+
+        /* Regresa el árbol del vértice. */
+        private ArbolBinarioCompleto<T> arbol() {
+            return ArbolBinarioCompleto.this;
+        }
+
+        /* Regresa una representación en cadena del vértice. */
+        @Override public String toString() {
+            return arreglo[indice].toString();
         }
     }
 
+    /* Capacidad inicial del arreglo. */
+    private static final int CAPACIDAD = 16;
+
+    /* Los elementos en orden BFS. */
+    private T[] arreglo;
+
     /**
      * Constructor sin parámetros. Para no perder el constructor sin parámetros
      * de {@link ArbolBinario}.
      */
-    public ArbolBinarioCompleto() { super(); }
+    public ArbolBinarioCompleto() {
+        super();
+        arreglo = nuevoArreglo(CAPACIDAD);
+    }
 
     /**
      * Construye un árbol binario completo a partir de una colección. El árbol
@@ -49,7 +151,14 @@ public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
      *        binario completo.
      */
     public ArbolBinarioCompleto(Coleccion<T> coleccion) {
-        super(coleccion);
+        super();
+        arreglo = nuevoArreglo(Math.max(coleccion.getElementos(), CAPACIDAD));
+        for(T elemento : coleccion) agrega(elemento);
+    }
+
+    /* Truco para crear arreglos genéricos. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])new Object[n];
     }
 
     /**
@@ -63,76 +172,86 @@ public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
         if (elemento == null)
             throw new IllegalArgumentException("El elemento es nulo.");
 
-        Vertice nuevo = nuevoVertice(elemento);
-        elementos++;
-
-        if (raiz == null) raiz = nuevo;
-        else {
-            Vertice vertice = vertice(verticeVacio());
-            nuevo.padre = vertice;
-
-            if (vertice.izquierdo == null)
-                vertice.izquierdo = nuevo;
-            else
-                vertice.derecho = nuevo;
+        if(elementos == arreglo.length) {
+            T[] nuevo = nuevoArreglo(elementos * 2);
+            System.arraycopy(arreglo, 0, nuevo, 0, elementos);
+            arreglo = nuevo;
         }
-    }
-
-    private VerticeArbolBinario<T> verticeVacio(){
-        Pila<Boolean> binario = new Pila<>();
-        int cantidad = elementos;
-        Vertice v, aux;
-        v = aux = raiz;
-        
-        while(cantidad > 1){
-            binario.mete((cantidad & 1) == 0);
-            cantidad >>= 1;
-        }
-
-        while(aux !=null){
-            v = aux;
-            aux = binario.saca() ? aux.izquierdo : aux.derecho;
-        }
-
-        return v;
+        arreglo[elementos++] = elemento;
     }
 
     /**
      * Elimina un elemento del árbol. El elemento a eliminar cambia lugares con
      * el último elemento del árbol al recorrerlo por BFS, y entonces es
-     * eliminado.
+     * eliminado. Si el elemento no está en el árbol, no lo modifica.
      * @param elemento el elemento a eliminar.
      */
     @Override public void elimina(T elemento) {
-        Vertice v = vertice(busca(elemento));
+        int i = indiceDe(elemento);
+        if(i == -1) return;
 
-        if(elementos == 1) limpia();
-        else{
-            Vertice ultimo = vertice(ultimo());
-            v.elemento = ultimo.elemento;
+        arreglo[i] = arreglo[elementos - 1];
+        eliminaUltimo();
+    }
 
-            if (ultimo.padre.derecho == ultimo) ultimo.padre.derecho = null;
-            else ultimo.padre.izquierdo = null;
+    /**
+     * Elimina el último elemento del árbol al recorrerlo por BFS, en tiempo
+     * constante.
+     * @return el elemento eliminado.
+     * @throws NoSuchElementException si el árbol es vacío.
+     */
+    public T eliminaUltimo() {
+        if(esVacia()) throw new NoSuchElementException("El arbol es vacio");
 
-            elementos--;
-        }
+        T ultimo = arreglo[--elementos];
+        arreglo[elementos] = null;
+        return ultimo;
     }
 
-    private VerticeArbolBinario<T> ultimo() {
-        Cola<Vertice> cola = new Cola<Vertice>();
-        cola.mete(raiz);
+    /* Regresa la posición del elemento en el arreglo, o -1. */
+    private int indiceDe(T elemento) {
+        for(int i = 0; i < elementos; i++)
+            if(arreglo[i].equals(elemento)) return i;
+        return -1;
+    }
 
-        Vertice ultimo = raiz;
+    /**
+     * Busca el vértice de un elemento en el árbol, recorriendo el arreglo. Si
+     * no lo encuentra regresa <code>null</code>.
+     * @param elemento el elemento para buscar el vértice.
+     * @return un vértice que contiene el elemento buscado si lo encuentra;
+     *         <code>null</code> en otro caso.
+     */
+    @Override public VerticeArbolBinario<T> busca(T elemento) {
+        int i = indiceDe(elemento);
+        return i == -1 ? null : new VerticeIndice(i);
+    }
 
-        while (!cola.esVacia()) {
-            Vertice actual = cola.saca();
-            ultimo = actual;
+    /**
+     * Regresa el vértice que contiene la raíz del árbol.
+     * @return el vértice que contiene la raíz del árbol.
+     * @throws NoSuchElementException si el árbol es vacío.
+     */
+    @Override public VerticeArbolBinario<T> raiz() {
+        if(esVacia()) throw new NoSuchElementException("El arbol es vacio");
+        return new VerticeIndice(0);
+    }
 
-            if (actual.hayIzquierdo()) cola.mete(actual.izquierdo);
-            if (actual.hayDerecho()) cola.mete(actual.derecho);
-        }
+    /**
+     * Nos dice si el árbol es vacío.
+     * @return <code>true</code> si el árbol es vacío, <code>false</code> en
+     *         otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
 
-        return ultimo;
+    /**
+     * Limpia el árbol de elementos, dejándolo vacío.
+     */
+    @Override public void limpia() {
+        for(int i = 0; i < elementos; i++) arreglo[i] = null;
+        elementos = 0;
     }
 
     /**
@@ -142,16 +261,7 @@ public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
      */
     @Override public int altura() {
         if(esVacia()) return -1;
-        
-        int altura = 0;
-        int x = elementos;
-
-        while (x > 1) {
-            x >>= 1; 
-            altura++; 
-        }
-
-        return altura;
+        return 31 - Integer.numberOfLeadingZeros(elementos);
     }
 
     /**
@@ -160,18 +270,26 @@ public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
      * @param accion la acción a realizar en cada elemento del árbol.
      */
     public void bfs(AccionVerticeArbolBinario<T> accion) {
-        if(esVacia()) return;
-        
-        Cola<Vertice> cola = new Cola<>();
-        cola.mete(raiz);
-
-        while(!cola.esVacia()){
-            Vertice v = cola.saca();
-            accion.actua(v);
+        for(int i = 0; i < elementos; i++) accion.actua(new VerticeIndice(i));
+    }
 
-            if(v.hayIzquierdo()) cola.mete(v.izquierdo);
-            if(v.hayDerecho()) cola.mete(v.derecho);
-        }
+    /**
+     * Compara el árbol con un objeto. Dos árboles binarios completos son
+     * iguales si tienen los mismos elementos en el mismo orden BFS.
+     * @param objeto el objeto con el que queremos comparar el árbol.
+     * @return <code>true</code> si el objeto recibido es un árbol binario
+     *         completo igual; <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object objeto) {
+        if (objeto == null || getClass() != objeto.getClass())
+            return false;
+        @SuppressWarnings("unchecked")
+            ArbolBinarioCompleto<T> arbol = (ArbolBinarioCompleto<T>)objeto;
+
+        if(elementos != arbol.elementos) return false;
+        for(int i = 0; i < elementos; i++)
+            if(!arreglo[i].equals(arbol.arreglo[i])) return false;
+        return true;
     }
 
     /**
@@ -181,4 +299,4 @@ public class ArbolBinarioCompleto<T> extends ArbolBinario<T> {
     @Override public Iterator<T> iterator() {
         return new Iterador();
     }
-}
\ No newline at end of file
+}
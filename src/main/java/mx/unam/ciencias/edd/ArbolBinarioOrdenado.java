@@ -1,6 +1,7 @@
 package mx.unam.ciencias.edd;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * <p>Clase para árboles binarios ordenados. Los árboles son genéricos, pero
@@ -17,30 +18,45 @@ import java.util.Iterator;
 public class ArbolBinarioOrdenado<T extends Comparable<T>>
     extends ArbolBinario<T> {
 
-    /* Clase interna privada para iteradores. */
+    /* Clase interna privada para iteradores. La pila guarda los ancestros
+       pendientes del siguiente vértice, así que el iterador sólo recorre los
+       vértices que regresa y los que hay en su camino. */
     private class Iterador implements Iterator<T> {
 
         /* Pila para recorrer los vértices en DFS in-order. */
         private Pila<Vertice> pila;
+        /* El último elemento a regresar, o null si no hay límite. */
+        private T hasta;
 
-        /* Inicializa al iterador. */
+        /* Inicializa al iterador en el mínimo. */
         private Iterador() {
+            this(null, null);
+        }
+
+        /* Inicializa al iterador en el primer elemento mayor o igual que
+           desde, bajando una vez desde la raíz; null es sin límite. */
+        private Iterador(T desde, T hasta) {
             pila = new Pila<>();
-            if (esVacia()) return;
+            this.hasta = hasta;
 
-            pila.mete(raiz);
             Vertice v = raiz;
-
-            while((v = v.izquierdo) != null) pila.mete(v);
+            while (v != null) {
+                if (desde == null || v.elemento.compareTo(desde) >= 0) {
+                    pila.mete(v);
+                    v = v.izquierdo;
+                } else v = v.derecho;
+            }
         }
 
         /* Nos dice si hay un elemento siguiente. */
         @Override public boolean hasNext() {
-            return !pila.esVacia();
+            if (pila.esVacia()) return false;
+            return hasta == null || pila.mira().elemento.compareTo(hasta) <= 0;
         }
 
         /* Regresa el siguiente elemento en orden DFS in-order. */
         @Override public T next() {
+            if (!hasNext()) throw new NoSuchElementException("No hay elemento siguiente");
             Vertice v = pila.saca();
             
             if(v.derecho != null){
@@ -80,6 +96,23 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
         super(coleccion);
     }
 
+    /**
+     * Construye un árbol binario ordenado a partir de una colección. Si la
+     * colección está ordenada, el árbol se construye balanceado en tiempo
+     * <i>O</i>(<i>n</i>) con {@link #agregaOrdenados}; si no, se agregan los
+     * elementos uno por uno.
+     * @param coleccion la colección a partir de la cual creamos el árbol
+     *        binario ordenado.
+     * @param ordenada si la colección está ordenada.
+     * @throws IllegalArgumentException si la colección no está ordenada y se
+     *         dijo que lo estaba.
+     */
+    public ArbolBinarioOrdenado(Coleccion<T> coleccion, boolean ordenada) {
+        super();
+        if(ordenada) agregaOrdenados(coleccion);
+        else for(T elemento : coleccion) agrega(elemento);
+    }
+
     /**
      * Agrega un nuevo elemento al árbol. El árbol conserva su orden in-order.
      * @param elemento el elemento a agregar.
@@ -94,19 +127,94 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
         else auxAgrega(raiz, nuevo);   
     }
 
-    private void auxAgrega(Vertice actual, Vertice nuevo){
+    /**
+     * Agrega los elementos de una colección ordenada de menor a mayor. Los
+     * elementos se mezclan con los del árbol, recorrido in-order, y el árbol
+     * se reconstruye balanceado a partir del arreglo ordenado, tomando como
+     * raíz de cada subárbol al elemento de en medio; todo toma tiempo
+     * <i>O</i>(<i>n</i> + <i>m</i>), sin comparaciones para buscar ni giros.
+     * Las clases herederas ajustan sus vértices con {@link #ajustaConstruido}.
+     * @param ordenados la colección ordenada de elementos a agregar.
+     * @throws IllegalArgumentException si algún elemento es
+     *         <code>null</code>, o si la colección no está ordenada.
+     */
+    public void agregaOrdenados(Coleccion<T> ordenados) {
+        T[] nuevos = nuevoArreglo(ordenados.getElementos());
+        int m = 0;
+        for(T elemento : ordenados) {
+            if(elemento == null) throw new IllegalArgumentException("El elemento es nulo");
+            if(m > 0 && nuevos[m - 1].compareTo(elemento) > 0)
+                throw new IllegalArgumentException("La colección no está ordenada");
+            nuevos[m++] = elemento;
+        }
+        if(m == 0) return;
+
+        T[] todos = nuevoArreglo(elementos + m);
+        int j = 0, k = 0;
+        for(T elemento : this) {
+            while(j < m && nuevos[j].compareTo(elemento) < 0) todos[k++] = nuevos[j++];
+            todos[k++] = elemento;
+        }
+        while(j < m) todos[k++] = nuevos[j++];
+
+        elementos = k;
+        int altura = 31 - Integer.numberOfLeadingZeros(k);
+        raiz = construye(todos, 0, k, 0, altura);
+        raiz.padre = null;
+        ultimoAgregado = null;
+    }
 
-        if(nuevo.elemento.compareTo(actual.elemento) > 0){
-            if(!actual.hayDerecho()){
-                nuevo.padre = actual;
-                actual.derecho = nuevo;
-            } else auxAgrega(actual.derecho, nuevo);
-        }else {
-            if(!actual.hayIzquierdo()){
-                nuevo.padre = actual;
-                actual.izquierdo = nuevo;
-            } else auxAgrega(actual.izquierdo, nuevo);
-        } 
+    /* Construye el subárbol balanceado con los elementos [ini, fin) del
+       arreglo; la recursión es de profundidad logarítmica. */
+    private Vertice construye(T[] arreglo, int ini, int fin, int profundidad, int altura) {
+        if(ini >= fin) return null;
+
+        int mitad = (ini + fin) >>> 1;
+        Vertice vertice = nuevoVertice(arreglo[mitad]);
+        vertice.tamano = fin - ini;
+        vertice.izquierdo = construye(arreglo, ini, mitad, profundidad + 1, altura);
+        vertice.derecho = construye(arreglo, mitad + 1, fin, profundidad + 1, altura);
+        if(vertice.izquierdo != null) vertice.izquierdo.padre = vertice;
+        if(vertice.derecho != null) vertice.derecho.padre = vertice;
+        ajustaConstruido(vertice, profundidad, altura);
+        return vertice;
+    }
+
+    /**
+     * Ajusta un vértice construido por {@link #agregaOrdenados}, después de
+     * construir a sus hijos. En el árbol construido todos los vértices con
+     * profundidad menor que <em>altura</em> - 1 tienen dos hijos. Por omisión
+     * no hace nada.
+     * @param vertice el vértice construido.
+     * @param profundidad la profundidad del vértice.
+     * @param altura la altura del árbol construido.
+     */
+    protected void ajustaConstruido(Vertice vertice, int profundidad, int altura) {}
+
+    /* Truco para crear arreglos genéricos. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])new Comparable[n];
+    }
+
+    private void auxAgrega(Vertice actual, Vertice nuevo){
+        while (true) {
+            actual.tamano++;
+            if(nuevo.elemento.compareTo(actual.elemento) > 0){
+                if(!actual.hayDerecho()){
+                    nuevo.padre = actual;
+                    actual.derecho = nuevo;
+                    return;
+                }
+                actual = actual.derecho;
+            }else {
+                if(!actual.hayIzquierdo()){
+                    nuevo.padre = actual;
+                    actual.izquierdo = nuevo;
+                    return;
+                }
+                actual = actual.izquierdo;
+            }
+        }
     }
 
     /**
@@ -155,7 +263,8 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
 
     /**
      * Elimina un vértice que a lo más tiene un hijo distinto de
-     * <code>null</code> subiendo ese hijo (si existe).
+     * <code>null</code> subiendo ese hijo (si existe). El tamaño de los
+     * subárboles de sus ancestros disminuye en lo que contaba el vértice.
      * @param vertice el vértice a eliminar; debe tener a lo más un hijo
      *                distinto de <code>null</code>.
      */
@@ -170,28 +279,99 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
         }
         
         if (hijo != null) hijo.padre = padre;
+
+        int peso = vertice.tamano - tamano(hijo);
+        for (Vertice v = padre; v != null; v = v.padre) v.tamano -= peso;
+    }
+
+    /* Regresa el tamaño del subárbol del vértice, o 0 si es null. */
+    private int tamano(Vertice vertice) {
+        return vertice == null ? 0 : vertice.tamano;
     }
 
     /**
-     * Busca un elemento en el árbol recorriéndolo in-order. Si lo encuentra,
-     * regresa el vértice que lo contiene; si no, regresa <code>null</code>.
+     * Busca un elemento en el árbol bajando desde la raíz, con una comparación
+     * por nivel y sin crear objetos. Si lo encuentra, regresa el vértice que
+     * lo contiene; si no, regresa <code>null</code>.
      * @param elemento el elemento a buscar.
      * @return un vértice que contiene al elemento buscado si lo
      *         encuentra; <code>null</code> en otro caso.
      */
     @Override public VerticeArbolBinario<T> busca(T elemento) {
-        return auxbusca(raiz,nuevoVertice(elemento));
+        Vertice actual = raiz;
+        while (actual != null) {
+            int comparacion = actual.elemento.compareTo(elemento);
+            if (comparacion == 0) return actual;
+            if (comparacion < 0) actual = actual.derecho;
+            else actual = actual.izquierdo;
+        }
+        return null;
     }
 
-    private VerticeArbolBinario<T> auxbusca(Vertice actual, Vertice nuevo) {
-		if (actual == null) return null;
+    /**
+     * Regresa el número de elementos del árbol estrictamente menores que el
+     * elemento recibido, bajando una sola vez desde la raíz con el tamaño de
+     * los subárboles, en tiempo <i>O</i>(<i>h</i>).
+     * @param elemento el elemento.
+     * @return el número de elementos menores que el elemento recibido, que
+     *         es su posición in-order si está en el árbol.
+     */
+    public int rank(T elemento) {
+        int rank = 0;
+        Vertice actual = raiz;
+        while (actual != null) {
+            if (actual.elemento.compareTo(elemento) < 0) {
+                rank += tamano(actual.izquierdo) + 1;
+                actual = actual.derecho;
+            } else actual = actual.izquierdo;
+        }
+        return rank;
+    }
 
-		if (actual.elemento.compareTo(nuevo.elemento) == 0) return actual;
+    /**
+     * Regresa el <em>i</em>-ésimo elemento del árbol in-order, empezando en
+     * cero, en tiempo <i>O</i>(<i>h</i>).
+     * @param i el índice del elemento.
+     * @return el <em>i</em>-ésimo elemento más pequeño del árbol.
+     * @throws ExcepcionIndiceInvalido si <em>i</em> es menor que cero o mayor
+     *         o igual que el número de elementos.
+     */
+    public T select(int i) {
+        if (i < 0 || i >= elementos) throw new ExcepcionIndiceInvalido("El indice es inválido");
+
+        Vertice actual = raiz;
+        while (true) {
+            int izquierdo = tamano(actual.izquierdo);
+            if (i == izquierdo) return actual.elemento;
+            if (i < izquierdo) actual = actual.izquierdo;
+            else {
+                i -= izquierdo + 1;
+                actual = actual.derecho;
+            }
+        }
+    }
 
-		if (actual.elemento.compareTo(nuevo.elemento) <= 0)
-			return auxbusca(actual.derecho, nuevo);
-		return auxbusca(actual.izquierdo, nuevo);
-	}
+    /**
+     * Regresa el número de elementos del árbol en el intervalo cerrado [a,
+     * b], en tiempo <i>O</i>(<i>h</i>).
+     * @param a el límite inferior del intervalo.
+     * @param b el límite superior del intervalo.
+     * @return el número de elementos mayores o iguales que a y menores o
+     *         iguales que b; cero si a es mayor que b.
+     */
+    public int cuentaRango(T a, T b) {
+        if (a.compareTo(b) > 0) return 0;
+
+        int hastaB = 0;
+        Vertice actual = raiz;
+        while (actual != null) {
+            if (actual.elemento.compareTo(b) <= 0) {
+                hastaB += tamano(actual.izquierdo) + 1;
+                actual = actual.derecho;
+            } else actual = actual.izquierdo;
+        }
+        return hastaB - rank(a);
+    }
 
     /**
      * Regresa el vértice que contiene el último elemento agregado al
@@ -227,6 +407,10 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
             else actual.padre.izquierdo = hijo;
         }
 
+        int total = actual.tamano;
+        actual.tamano -= hijo.tamano - tamano(hijo.derecho);
+        hijo.tamano = total;
+
         actual.izquierdo = hijo.derecho;
 
         if (hijo.hayDerecho()) actual.izquierdo.padre = actual;
@@ -254,6 +438,10 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
             else actual.padre.derecho = hijo;
         }
 
+        int total = actual.tamano;
+        actual.tamano -= hijo.tamano - tamano(hijo.izquierdo);
+        hijo.tamano = total;
+
         actual.derecho = hijo.izquierdo;
 
         if (hijo.hayIzquierdo()) actual.derecho.padre = actual;
@@ -273,9 +461,15 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
 
     private void auxPreOrder(AccionVerticeArbolBinario<T> accion, Vertice vertice) {
         if (vertice == null) return;
-        accion.actua(vertice);
-        auxPreOrder(accion, vertice.izquierdo);
-        auxPreOrder(accion, vertice.derecho);
+
+        Pila<Vertice> pila = new Pila<>();
+        pila.mete(vertice);
+        while (!pila.esVacia()) {
+            Vertice v = pila.saca();
+            accion.actua(v);
+            if (v.derecho != null) pila.mete(v.derecho);
+            if (v.izquierdo != null) pila.mete(v.izquierdo);
+        }
     }
 
     /**
@@ -288,11 +482,17 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
     }
 
     private void auxInOrder(AccionVerticeArbolBinario<T> accion, Vertice vertice) {
-        if (vertice == null) return;
+        Pila<Vertice> pila = new Pila<>();
 
-        auxInOrder(accion, vertice.izquierdo);
-        accion.actua(vertice);
-        auxInOrder(accion, vertice.derecho);
+        while (vertice != null || !pila.esVacia()) {
+            while (vertice != null) {
+                pila.mete(vertice);
+                vertice = vertice.izquierdo;
+            }
+            vertice = pila.saca();
+            accion.actua(vertice);
+            vertice = vertice.derecho;
+        }
     }
 
 
@@ -306,11 +506,23 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
     }
 
     private void auxPostOrder(AccionVerticeArbolBinario<T> accion, Vertice vertice) {
-        if (vertice == null) return;
+        Pila<Vertice> pila = new Pila<>();
+        Vertice anterior = null;
 
-        auxPostOrder(accion, vertice.izquierdo);
-        auxPostOrder(accion, vertice.derecho);
-        accion.actua(vertice);
+        while (vertice != null || !pila.esVacia()) {
+            while (vertice != null) {
+                pila.mete(vertice);
+                vertice = vertice.izquierdo;
+            }
+            Vertice v = pila.mira();
+            if (v.derecho != null && v.derecho != anterior) {
+                vertice = v.derecho;
+            } else {
+                pila.saca();
+                accion.actua(v);
+                anterior = v;
+            }
+        }
     }
 
     /**
@@ -320,4 +532,37 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
     @Override public Iterator<T> iterator() {
         return new Iterador();
     }
+
+    /**
+     * Regresa un iterador que recorre en orden los elementos del árbol
+     * mayores o iguales que el elemento recibido. Encontrar el primero toma
+     * tiempo <i>O</i>(<i>h</i>); después cada elemento se obtiene al pedirlo,
+     * sin recorrer el resto del árbol.
+     * @param elemento el elemento desde el que se itera.
+     * @return un iterador para los elementos mayores o iguales que el
+     *         recibido.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public Iterator<T> iteradorDesde(T elemento) {
+        if (elemento == null) throw new IllegalArgumentException("El elemento es nulo");
+        return new Iterador(elemento, null);
+    }
+
+    /**
+     * Regresa un iterador que recorre en orden los elementos del árbol en el
+     * intervalo cerrado [a, b]. Encontrar el primero toma tiempo
+     * <i>O</i>(<i>h</i>), y el iterador termina al rebasar b sin tocar los
+     * vértices mayores.
+     * @param a el límite inferior del intervalo.
+     * @param b el límite superior del intervalo.
+     * @return un iterador para los elementos del intervalo; si a es mayor que
+     *         b no regresa ninguno.
+     * @throws IllegalArgumentException si <code>a</code> o <code>b</code> es
+     *         <code>null</code>.
+     */
+    public Iterator<T> rango(T a, T b) {
+        if (a == null || b == null) throw new IllegalArgumentException("El elemento es nulo");
+        return new Iterador(a, b);
+    }
 }
\ No newline at end of file
@@ -79,6 +79,20 @@ public class ArbolRojinegro<T extends Comparable<T>>
         super(coleccion);
     }
 
+    /**
+     * Construye un árbol rojinegro a partir de una colección. Si la colección
+     * está ordenada, el árbol se construye en tiempo <i>O</i>(<i>n</i>) sin
+     * rebalancear.
+     * @param coleccion la colección a partir de la cual creamos el árbol
+     *        rojinegro.
+     * @param ordenada si la colección está ordenada.
+     * @throws IllegalArgumentException si la colección no está ordenada y se
+     *         dijo que lo estaba.
+     */
+    public ArbolRojinegro(Coleccion<T> coleccion, boolean ordenada) {
+        super(coleccion, ordenada);
+    }
+
     /**
      * Construye un nuevo vértice, usando una instancia de {@link
      * VerticeRojinegro}.
@@ -89,6 +103,19 @@ public class ArbolRojinegro<T extends Comparable<T>>
         return new VerticeRojinegro(elemento);
     }
 
+    /**
+     * Colorea el vértice construido. En el árbol construido todos los
+     * vértices arriba del penúltimo nivel tienen dos hijos, así que pintando
+     * de ROJO el último nivel y de NEGRO todos los demás, todo camino a una
+     * hoja tiene <em>altura</em> vértices NEGROS.
+     * @param vertice el vértice construido.
+     * @param profundidad la profundidad del vértice.
+     * @param altura la altura del árbol construido.
+     */
+    @Override protected void ajustaConstruido(Vertice vertice, int profundidad, int altura) {
+        ((VerticeRojinegro)vertice).color = profundidad == altura && altura > 0 ? Color.ROJO : Color.NEGRO;
+    }
+
     /**
      * Regresa el color del vértice rojinegro.
      * @param vertice el vértice del que queremos el color.
@@ -194,6 +221,8 @@ public class ArbolRojinegro<T extends Comparable<T>>
             existF = true;
             hijo = (VerticeRojinegro) nuevoVertice(null);
             hijo.color = Color.NEGRO;
+            /* El fantasma no cuenta en el tamaño de los subárboles. */
+            hijo.tamano = 0;
             vertice.izquierdo = hijo;
             hijo.padre = vertice;
         }else 
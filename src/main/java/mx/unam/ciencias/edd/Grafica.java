@@ -1,5 +1,6 @@
 package mx.unam.ciencias.edd;
 
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -38,13 +39,16 @@ public class Grafica<T> implements Coleccion<T> {
         private T elemento;
         /* El color del vértice. */
         private Color color;
-        /* La lista de vecinos del vértice. */
-        private Lista<Vertice> vecinos;
+        /* Los vecinos del vértice. */
+        private Vecindad<Vertice> vecinos;
+        /* El identificador del vértice, único mientras esté en la gráfica. */
+        private int id;
 
         /* Crea un nuevo vértice a partir de un elemento. */
-        public Vertice(T elemento) {
+        public Vertice(T elemento, int id) {
             this.elemento = elemento;
-            this.vecinos = new Lista<Vertice>();
+            this.id = id;
+            this.vecinos = new Vecindad<Vertice>();
             color = Color.NINGUNO;
         }
 
@@ -55,7 +59,7 @@ public class Grafica<T> implements Coleccion<T> {
 
         /* Regresa el grado del vértice. */
         @Override public int getGrado() {
-            return vecinos.getLongitud();
+            return vecinos.getElementos();
         }
 
         /* Regresa el color del vértice. */
@@ -71,14 +75,25 @@ public class Grafica<T> implements Coleccion<T> {
 
     /* Vértices. */
     private Lista<Vertice> vertices;
+    /* Índice de los vértices por su elemento. */
+    private HashMap<T, Vertice> indice;
     /* Número de aristas. */
     private int aristas;
+    /* Número de identificadores de vértice repartidos. */
+    private int ids;
+    /* Identificadores de vértices eliminados, para reutilizarse. */
+    private Pila<Integer> libres;
+    /* La última fotografía de la gráfica; null si la gráfica cambió desde
+       que se tomó. */
+    private volatile GraficaCSR<T> fotografia;
 
     /**
      * Constructor único.
      */
     public Grafica() {
         this.vertices = new Lista<Vertice>();
+        this.indice = new HashMap<T, Vertice>();
+        this.libres = new Pila<Integer>();
     }
 
     /**
@@ -107,8 +122,10 @@ public class Grafica<T> implements Coleccion<T> {
     @Override public void agrega(T elemento) {
         if (elemento == null || this.contiene(elemento)) throw new IllegalArgumentException("No se puede agregar a la gráfica.");
           
-          Vertice vertice = new Vertice(elemento);
+          Vertice vertice = new Vertice(elemento, libres.esVacia() ? ids++ : libres.saca());
           vertices.agrega(vertice);
+          indice.put(elemento, vertice);
+          fotografia = null;
     }
 
     /**
@@ -121,16 +138,31 @@ public class Grafica<T> implements Coleccion<T> {
      *         igual a b.
      */
     public void conecta(T a, T b) {
-        if(!contiene(a) || !contiene(b)) throw new NoSuchElementException("Los elementos no estan en la gráfica");
+        conecta(a, b, 1);
+    }
 
-        if(a.equals(b) || sonVecinos(a,b)) throw new IllegalArgumentException("No es posible conectar estos vértices");
-        
+    /**
+     * Conecta dos elementos de la gráfica con una arista del peso recibido.
+     * Los elementos deben estar en la gráfica.
+     * @param a el primer elemento a conectar.
+     * @param b el segundo elemento a conectar.
+     * @param peso el peso de la arista.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b ya están conectados, si a es
+     *         igual a b, o si el peso no es positivo.
+     */
+    public void conecta(T a, T b, double peso) {
         Vertice vertice_a = busca(a);
         Vertice vertice_b = busca(b);
+        if(vertice_a == null || vertice_b == null) throw new NoSuchElementException("Los elementos no estan en la gráfica");
+
+        if(a.equals(b) || sonVecinos(vertice_a, vertice_b)) throw new IllegalArgumentException("No es posible conectar estos vértices");
+        if(!(peso > 0)) throw new IllegalArgumentException("El peso no es positivo");
 
-        vertice_a.vecinos.agrega(vertice_b);
-        vertice_b.vecinos.agrega(vertice_a);
+        vertice_a.vecinos.agrega(vertice_b, peso);
+        vertice_b.vecinos.agrega(vertice_a, peso);
         aristas++;
+        fotografia = null;
     }
 
     /**
@@ -142,16 +174,16 @@ public class Grafica<T> implements Coleccion<T> {
      * @throws IllegalArgumentException si a o b no están conectados.
      */
     public void desconecta(T a, T b) {
-        if(!contiene(a) || !contiene(b)) throw new NoSuchElementException("Los elementos no estan en la gráfica");
-
-        if(!sonVecinos(a,b)) throw new IllegalArgumentException("Los vértices no estan conectados");
-
         Vertice vertice_a = busca(a);
         Vertice vertice_b = busca(b);
+        if(vertice_a == null || vertice_b == null) throw new NoSuchElementException("Los elementos no estan en la gráfica");
+
+        if(!sonVecinos(vertice_a, vertice_b)) throw new IllegalArgumentException("Los vértices no estan conectados");
 
         vertice_a.vecinos.elimina(vertice_b);
         vertice_b.vecinos.elimina(vertice_a);
         aristas--;
+        fotografia = null;
     }
 
     /**
@@ -160,9 +192,7 @@ public class Grafica<T> implements Coleccion<T> {
      *         <code>false</code> en otro caso.
      */
     @Override public boolean contiene(T elemento) {
-        for(Vertice vertice : vertices)
-            if(vertice.elemento.equals(elemento)) return true;
-        return false;
+        return indice.containsKey(elemento);
     }
 
     /**
@@ -173,28 +203,22 @@ public class Grafica<T> implements Coleccion<T> {
      *         gráfica.
      */
     @Override public void elimina(T elemento) {
-        if(!contiene(elemento)) throw new NoSuchElementException("El elemento no esta en la gráfica");
-
         Vertice eliminado = busca(elemento);
+        if(eliminado == null) throw new NoSuchElementException("El elemento no esta en la gráfica");
 
-        for(Vertice vertice: vertices){
-            for(Vertice ady : vertice.vecinos){
-                if(ady.equals(eliminado)){
-                    vertice.vecinos.elimina(eliminado);
-                    aristas--;
-                }
-            }
+        for(Vertice ady : eliminado.vecinos){
+            ady.vecinos.elimina(eliminado);
+            aristas--;
         }
         vertices.elimina(eliminado);
+        indice.remove(elemento);
+        libres.mete(eliminado.id);
+        fotografia = null;
     }
 
+    /* Regresa el vértice del elemento, o null si no está en la gráfica. */
     private Vertice busca(T elemento) {
-        for (Vertice v : vertices) {
-          if (v.elemento.equals(elemento)) {
-            return v;
-          }
-        }
-        return null;
+        return indice.get(elemento);
     }
 
     /**
@@ -206,10 +230,55 @@ public class Grafica<T> implements Coleccion<T> {
      * @throws NoSuchElementException si a o b no son elementos de la gráfica.
      */
     public boolean sonVecinos(T a, T b) {
-        if(!contiene(a) || !contiene(b)) throw new NoSuchElementException();
-        Vertice vertice_a = (Vertice) vertice(a);
-        Vertice vertice_b = (Vertice) vertice(b);
+        Vertice vertice_a = busca(a);
+        Vertice vertice_b = busca(b);
+        if(vertice_a == null || vertice_b == null) throw new NoSuchElementException();
 
+        return sonVecinos(vertice_a, vertice_b);
+    }
+
+    /**
+     * Regresa el peso de la arista que comparten los vértices que contienen a
+     * los elementos recibidos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return el peso de la arista que comparten los vértices que contienen a
+     *         los elementos recibidos.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b no están conectados.
+     */
+    public double getPeso(T a, T b) {
+        Vertice vertice_a = busca(a);
+        Vertice vertice_b = busca(b);
+        if(vertice_a == null || vertice_b == null) throw new NoSuchElementException("Los elementos no estan en la gráfica");
+
+        double peso = vertice_a.vecinos.getPeso(vertice_b);
+        if(peso == -1) throw new IllegalArgumentException("Los vértices no estan conectados");
+        return peso;
+    }
+
+    /**
+     * Define el peso de la arista que comparten los vértices que contienen a
+     * los elementos recibidos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @param peso el nuevo peso de la arista.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b no están conectados, o si el
+     *         peso no es positivo.
+     */
+    public void setPeso(T a, T b, double peso) {
+        Vertice vertice_a = busca(a);
+        Vertice vertice_b = busca(b);
+        if(vertice_a == null || vertice_b == null) throw new NoSuchElementException("Los elementos no estan en la gráfica");
+
+        if(!(peso > 0)) throw new IllegalArgumentException("El peso no es positivo");
+        if(!vertice_a.vecinos.setPeso(vertice_b, peso)) throw new IllegalArgumentException("Los vértices no estan conectados");
+        vertice_b.vecinos.setPeso(vertice_a, peso);
+    }
+
+    /* Nos dice si dos vértices de la gráfica están conectados. */
+    private boolean sonVecinos(Vertice vertice_a, Vertice vertice_b) {
         return vertice_a.vecinos.contiene(vertice_b) && vertice_b.vecinos.contiene(vertice_a);
     }
 
@@ -220,9 +289,9 @@ public class Grafica<T> implements Coleccion<T> {
      * @return el vértice correspondiente el elemento recibido.
      */
     public VerticeGrafica<T> vertice(T elemento) {
-        for(Vertice vertice : vertices)
-            if(vertice.elemento.equals(elemento)) return vertice;
-        throw new NoSuchElementException();
+        Vertice vertice = busca(elemento);
+        if(vertice == null) throw new NoSuchElementException();
+        return vertice;
     }
 
     /**
@@ -238,17 +307,17 @@ public class Grafica<T> implements Coleccion<T> {
     }
 
     /**
-     * Nos dice si la gráfica es conexa.
+     * Nos dice si la gráfica es conexa, recorriendo la fotografía de {@link
+     * #snapshot}; si la gráfica no cambió desde la última fotografía, no se
+     * vuelve a construir. A diferencia de {@link GraficaCSR#esConexa}, la
+     * gráfica vacía no se considera ni conexa ni disconexa.
      * @return <code>true</code> si la gráfica es conexa, <code>false</code> en
      *         otro caso.
+     * @throws NoSuchElementException si la gráfica es vacía.
      */
     public boolean esConexa() {
-        T elemento = vertices.getPrimero().elemento;
-        int[] cnt = {0};
-        AccionVerticeGrafica<T> accion = vertice -> cnt[0]++;
-        bfs(elemento,accion);
-
-        return cnt[0] == getElementos();
+        if (vertices.esVacia()) throw new NoSuchElementException("La gráfica es vacía");
+        return snapshot().esConexa();
     }
 
     /**
@@ -263,58 +332,240 @@ public class Grafica<T> implements Coleccion<T> {
     /**
      * Realiza la acción recibida en todos los vértices de la gráfica, en el
      * orden determinado por BFS, comenzando por el vértice correspondiente al
-     * elemento recibido. Al terminar el método, todos los vértices tendrán
-     * color {@link Color#NINGUNO}.
+     * elemento recibido. El método no cambia el color de los vértices, por lo
+     * que varios hilos pueden recorrer la misma gráfica mientras nadie la
+     * modifique.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
      * @throws NoSuchElementException si el elemento no está en la gráfica.
      */
     public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
-        if (!contiene(elemento)) throw new NoSuchElementException("No hay elemento.");
+        Vertice startNode = busca(elemento);
+        if (startNode == null) throw new NoSuchElementException("No hay elemento.");
           
           Cola<Vertice> cola = new Cola<Vertice>();
-          Vertice startNode = busca(elemento);
           trayectoria(startNode, accion, cola);
     }
 
+    /* Recorre los vértices alcanzables desde v en el orden de la estructura.
+       Los visitados se marcan en un conjunto de bits propio del recorrido,
+       indexado por el identificador de los vértices. */
     private void trayectoria(Vertice v, AccionVerticeGrafica<T> accion, MeteSaca<Vertice> estructura) {
-        paraCadaVertice(vertice -> setColor(vertice, Color.ROJO));
-        
+        long[] visitados = new long[palabras()];
+
         estructura.mete(v);
-        v.color = Color.NEGRO;
+        GraficaCSR.marca(visitados, v.id);
 
         while (!estructura.esVacia()) {
             Vertice currentNode = estructura.saca();
             accion.actua(currentNode);
             for (Vertice neighbor : currentNode.vecinos) 
-                if (neighbor.color == Color.ROJO) {
+                if (!GraficaCSR.visitado(visitados, neighbor.id)) {
                     estructura.mete(neighbor);
-                    neighbor.color = Color.NEGRO;
+                    GraficaCSR.marca(visitados, neighbor.id);
                 }
         }
+    }
 
-        for (Vertice vertice : vertices) vertice.color = Color.NINGUNO;
+    /* Regresa el número de palabras de 64 bits para marcar los vértices por
+       su identificador. */
+    private int palabras() {
+        return (ids + 63) >>> 6;
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices alcanzables desde el
+     * vértice correspondiente al elemento recibido, nivel por nivel. Los
+     * niveles se calculan con la BFS paralela de {@link GraficaCSR#niveles}
+     * sobre la fotografía de {@link #snapshot}; la acción se realiza en el
+     * hilo que llama al método, y dentro de cada nivel en el orden en que
+     * fueron agregados los vértices. No cambia el color de los vértices.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfsParalelo(T elemento, AccionVerticeGrafica<T> accion) {
+        Vertice inicio = busca(elemento);
+        if (inicio == null) throw new NoSuchElementException("No hay elemento.");
+
+        /* El índice del vértice en la fotografía es su posición en la lista. */
+        int origen = 0;
+        for (Vertice vertice : vertices) {
+            if (vertice == inicio) break;
+            origen++;
+        }
+        int[] niveles = snapshot().niveles(origen);
+        int maximo = 0;
+        for (int nivel : niveles) if (nivel > maximo) maximo = nivel;
+
+        /* Ordena los vértices por nivel, conservando el orden de la lista. */
+        int[] inicios = new int[maximo + 2];
+        for (int nivel : niveles) if (nivel != -1) inicios[nivel + 1]++;
+        for (int d = 0; d <= maximo; d++) inicios[d + 1] += inicios[d];
+
+        @SuppressWarnings("unchecked") Vertice[] orden = (Vertice[])new Grafica.Vertice[inicios[maximo + 1]];
+        int i = 0;
+        for (Vertice vertice : vertices) {
+            if (niveles[i] != -1) orden[inicios[niveles[i]]++] = vertice;
+            i++;
+        }
+        for (Vertice vertice : orden) accion.actua(vertice);
     }
 
     /**
      * Realiza la acción recibida en todos los vértices de la gráfica, en el
      * orden determinado por DFS, comenzando por el vértice correspondiente al
-     * elemento recibido. Al terminar el método, todos los vértices tendrán
-     * color {@link Color#NINGUNO}.
+     * elemento recibido. El método no cambia el color de los vértices, por lo
+     * que varios hilos pueden recorrer la misma gráfica mientras nadie la
+     * modifique.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
      * @throws NoSuchElementException si el elemento no está en la gráfica.
      */
     public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
-        if (!contiene(elemento)) throw new NoSuchElementException("No hay elemento.");
+        Vertice startNode = busca(elemento);
+        if (startNode == null) throw new NoSuchElementException("No hay elemento.");
           
         Pila<Vertice> pila = new Pila<Vertice>();
-        Vertice startNode = busca(elemento);
         trayectoria(startNode, accion, pila);
     }
 
+    /**
+     * Regresa las distancias mínimas desde el vértice del elemento recibido a
+     * todos los vértices alcanzables, sumando los pesos de las aristas con el
+     * algoritmo de Dijkstra. Los vértices se regresan en el orden en que se
+     * fijó su distancia, que es de menor a mayor distancia.
+     * @param origen el elemento donde empiezan las trayectorias.
+     * @return una lista con cada elemento alcanzable y su distancia.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public Lista<ValorIndexable<T>> distancias(T origen) {
+        Vertice vertice = busca(origen);
+        if(vertice == null) throw new NoSuchElementException("No hay elemento.");
+
+        @SuppressWarnings("unchecked") Vertice[] anteriores = (Vertice[])new Grafica.Vertice[ids];
+        Lista<Vertice> fijos = new Lista<Vertice>();
+        ValorIndexable<Vertice>[] distancias = dijkstra(vertice, null, anteriores, fijos);
+
+        Lista<ValorIndexable<T>> lista = new Lista<ValorIndexable<T>>();
+        for(Vertice v : fijos)
+            lista.agrega(new ValorIndexable<T>(v.elemento, distancias[v.id].getValor()));
+        return lista;
+    }
+
+    /**
+     * Regresa la trayectoria de peso mínimo entre los vértices de los
+     * elementos recibidos, calculada con el algoritmo de Dijkstra.
+     * @param origen el elemento donde empieza la trayectoria.
+     * @param destino el elemento donde termina la trayectoria.
+     * @return una lista con los vértices de la trayectoria, de origen a
+     *         destino; la lista es vacía si no hay trayectoria.
+     * @throws NoSuchElementException si alguno de los elementos no está en la
+     *         gráfica.
+     */
+    public Lista<VerticeGrafica<T>> dijkstra(T origen, T destino) {
+        Vertice s = busca(origen);
+        Vertice t = busca(destino);
+        if(s == null || t == null) throw new NoSuchElementException("Los elementos no estan en la gráfica");
+
+        @SuppressWarnings("unchecked") Vertice[] anteriores = (Vertice[])new Grafica.Vertice[ids];
+        ValorIndexable<Vertice>[] distancias = dijkstra(s, t, anteriores, null);
+
+        Lista<VerticeGrafica<T>> trayectoria = new Lista<VerticeGrafica<T>>();
+        if(distancias[t.id].getValor() == Double.POSITIVE_INFINITY) return trayectoria;
+        for(Vertice v = t; v != null; v = anteriores[v.id]) trayectoria.agregaInicio(v);
+        return trayectoria;
+    }
+
+    /* Calcula las distancias desde el origen con el algoritmo de Dijkstra,
+       indexadas por el identificador de los vértices. Se detiene al fijar el
+       destino, si no es null; guarda el vértice anterior de cada uno en la
+       trayectoria mínima, y los vértices en el orden en que se fijan si la
+       lista no es null. Si la gráfica es densa (E > V²/log V) usa un
+       montículo de arreglo, que busca el mínimo en tiempo O(V) pero reordena
+       en tiempo constante; si no, un montículo 4-ario de llaves primitivas. */
+    private ValorIndexable<Vertice>[] dijkstra(Vertice origen, Vertice destino,
+                                               Vertice[] anteriores, Lista<Vertice> fijos) {
+        @SuppressWarnings("unchecked") ValorIndexable<Vertice>[] distancias =
+            (ValorIndexable<Vertice>[])new ValorIndexable[ids];
+        Lista<ValorIndexable<Vertice>> valores = new Lista<ValorIndexable<Vertice>>();
+        for(Vertice v : vertices) {
+            distancias[v.id] = new ValorIndexable<Vertice>(v, v == origen ? 0 : Double.POSITIVE_INFINITY);
+            valores.agrega(distancias[v.id]);
+        }
+
+        double n = vertices.getLongitud();
+        boolean densa = n > 1 && aristas > n * n / (Math.log(n) / Math.log(2));
+        MonticuloDijkstra<ValorIndexable<Vertice>> monticulo = densa ?
+            new MonticuloArreglo<ValorIndexable<Vertice>>(valores) :
+            new MonticuloDArio<Vertice>(valores);
+
+        while(!monticulo.esVacia()) {
+            ValorIndexable<Vertice> menor = monticulo.elimina();
+            if(menor.getValor() == Double.POSITIVE_INFINITY) break;
+            Vertice u = menor.getElemento();
+            if(fijos != null) fijos.agrega(u);
+            if(u == destino) break;
+
+            Vecindad<Vertice>.IteradorPesos vecinos = u.vecinos.iteradorPesos();
+            while(vecinos.hasNext()) {
+                Vertice v = vecinos.next();
+                ValorIndexable<Vertice> distancia = distancias[v.id];
+                if(distancia.getIndice() == -1) continue;
+                double nueva = menor.getValor() + vecinos.getPeso();
+                if(nueva < distancia.getValor()) {
+                    distancia.setValor(nueva);
+                    anteriores[v.id] = u;
+                    monticulo.reordena(distancia);
+                }
+            }
+        }
+        return distancias;
+    }
+
+    /**
+     * Regresa una fotografía inmutable de la gráfica en formato CSR, para
+     * recorrerla sobre arreglos contiguos. El índice de cada vértice en la
+     * fotografía es el orden en que fue agregado. La fotografía se guarda
+     * hasta que se agregan o eliminan vértices o aristas, así que llamadas
+     * sucesivas sin cambios de por medio regresan la misma, en tiempo
+     * constante.
+     * @return una fotografía de la gráfica.
+     */
+    public GraficaCSR<T> snapshot() {
+        GraficaCSR<T> fotografia = this.fotografia;
+        if (fotografia == null) this.fotografia = fotografia = construyeSnapshot();
+        return fotografia;
+    }
+
+    /* Construye la fotografía de la gráfica. */
+    private GraficaCSR<T> construyeSnapshot() {
+        int n = vertices.getLongitud();
+        @SuppressWarnings("unchecked") T[] elementos = (T[])new Object[n];
+        int[] desplazamientos = new int[n + 1];
+        int[] vecinos = new int[2 * aristas];
+        /* El índice en la fotografía de cada identificador de vértice. */
+        int[] indices = new int[ids];
+
+        int i = 0;
+        for (Vertice vertice : vertices) {
+            indices[vertice.id] = i;
+            elementos[i] = vertice.elemento;
+            desplazamientos[i + 1] = desplazamientos[i] + vertice.vecinos.getElementos();
+            i++;
+        }
+
+        int k = 0;
+        for (Vertice vertice : vertices)
+            for (Vertice vecino : vertice.vecinos)
+                vecinos[k++] = indices[vecino.id];
+
+        return new GraficaCSR<>(elementos, desplazamientos, vecinos);
+    }
+
     /**
      * Nos dice si la gráfica es vacía.
      * @return <code>true</code> si la gráfica es vacía, <code>false</code> en
@@ -329,7 +580,11 @@ public class Grafica<T> implements Coleccion<T> {
      */
     @Override public void limpia() {
         vertices.limpia();
+        indice.clear();
         aristas = 0;
+        ids = 0;
+        libres = new Pila<Integer>();
+        fotografia = null;
     }
 
     /**
@@ -338,14 +593,14 @@ public class Grafica<T> implements Coleccion<T> {
      */
     @Override public String toString() {
         String ver= "{", ari = "{";
-        paraCadaVertice(v -> setColor(v, Color.ROJO));
+        long[] visitados = new long[palabras()];
 
         for(Vertice v : vertices){
             ver += v.elemento + ", ";
             for(Vertice ady : v.vecinos)
-                if(ady.color == Color.ROJO)
+                if(!GraficaCSR.visitado(visitados, ady.id))
                     ari += "(" + v.elemento + ", " + ady.elemento + "), ";
-                    v.color = Color.NEGRO;
+            GraficaCSR.marca(visitados, v.id);
         }
         ver += "}";
         ari += "}";
@@ -368,10 +623,11 @@ public class Grafica<T> implements Coleccion<T> {
               return false;
             
         for (Vertice v : vertices) {
-          for (Vertice ady : vertices) {
-            if (!v.elemento.equals(ady.elemento) &&
-                sonVecinos(v.elemento, ady.elemento) &&
-                !grafica.sonVecinos(v.elemento, ady.elemento))
+          Vertice otro = grafica.busca(v.elemento);
+          if (otro == null) return false;
+          for (Vertice ady : v.vecinos) {
+            Vertice otroAdy = grafica.busca(ady.elemento);
+            if (otroAdy == null || otro.vecinos.getPeso(otroAdy) != v.vecinos.getPeso(ady))
               return false;
           }
         }
@@ -0,0 +1,393 @@
+package mx.unam.ciencias.edd;
+
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>Clase para fotografías inmutables de gráficas, en formato CSR (renglones
+ * dispersos comprimidos).</p>
+ *
+ * <p>Cada vértice se identifica con un índice entre 0 y <em>n</em>-1, en el
+ * orden en que fue agregado a la gráfica. Los vecinos del vértice
+ * <em>i</em> son <code>vecinos[desplazamientos[i]]</code> hasta
+ * <code>vecinos[desplazamientos[i+1]-1]</code>, en el mismo orden que en la
+ * gráfica, así que los recorridos visitan los vértices en el mismo orden que
+ * los de {@link Grafica}, pero leyendo arreglos contiguos y marcando los
+ * visitados en un conjunto de bits propio de cada recorrido.</p>
+ *
+ * <p>Las fotografías se obtienen con {@link Grafica#snapshot}; los cambios
+ * posteriores a la gráfica no se reflejan en ellas.</p>
+ */
+public class GraficaCSR<T> {
+
+    /* Tarea que expande un rango de la BFS paralela y regresa los vértices
+       del siguiente nivel que encontró. De arriba hacia abajo el rango es de
+       la frontera y cada vértice reclama a sus vecinos sin visitar; de abajo
+       hacia arriba el rango es de vértices y cada uno sin visitar busca un
+       vecino en la frontera. */
+    private class Expansion extends RecursiveTask<IntLista> {
+
+        /* El rango de la tarea. */
+        private int inicio, fin;
+        /* La frontera actual. */
+        private IntLista frontera;
+        /* La frontera como conjunto de bits; null de arriba hacia abajo. */
+        private long[] enFrontera;
+        /* Los niveles de los vértices; -1 si no se han visitado. */
+        private AtomicIntegerArray niveles;
+        /* El nivel que se está descubriendo. */
+        private int nivel;
+
+        /* Construye la tarea para el rango recibido. */
+        private Expansion(int inicio, int fin, IntLista frontera, long[] enFrontera,
+                          AtomicIntegerArray niveles, int nivel) {
+            this.inicio = inicio;
+            this.fin = fin;
+            this.frontera = frontera;
+            this.enFrontera = enFrontera;
+            this.niveles = niveles;
+            this.nivel = nivel;
+        }
+
+        /* Expande el rango, partiéndolo a la mitad mientras sea grande. */
+        @Override protected IntLista compute() {
+            if (fin - inicio > GRANO) {
+                int mitad = (inicio + fin) >>> 1;
+                Expansion izquierda = new Expansion(inicio, mitad, frontera, enFrontera, niveles, nivel);
+                Expansion derecha = new Expansion(mitad, fin, frontera, enFrontera, niveles, nivel);
+                izquierda.fork();
+                IntLista siguiente = derecha.compute();
+                IntLista primera = izquierda.join();
+                primera.concatena(siguiente);
+                return primera;
+            }
+
+            IntLista siguiente = new IntLista();
+            if (enFrontera == null) {
+                for (int i = inicio; i < fin; i++) {
+                    int v = frontera.get(i);
+                    for (int k = desplazamientos[v]; k < desplazamientos[v + 1]; k++)
+                        if (niveles.get(vecinos[k]) == -1 && niveles.compareAndSet(vecinos[k], -1, nivel))
+                            siguiente.agrega(vecinos[k]);
+                }
+            } else {
+                for (int v = inicio; v < fin; v++) {
+                    if (niveles.get(v) != -1) continue;
+                    for (int k = desplazamientos[v]; k < desplazamientos[v + 1]; k++)
+                        if (visitado(enFrontera, vecinos[k])) {
+                            niveles.set(v, nivel);
+                            siguiente.agrega(v);
+                            break;
+                        }
+                }
+            }
+            return siguiente;
+        }
+    }
+
+    /* Vértices por tarea de la BFS paralela. */
+    private static final int GRANO = 1 << 10;
+    /* Número de vértices a partir del cual esConexa usa la BFS paralela. */
+    private static final int UMBRAL_PARALELO = 1 << 14;
+    /* Se cambia de arriba hacia abajo a abajo hacia arriba cuando las aristas
+       de la frontera rebasan las aristas por explorar entre ALFA. */
+    private static final int ALFA = 14;
+    /* Se regresa de abajo hacia arriba a arriba hacia abajo cuando la
+       frontera tiene menos de n entre BETA vértices. */
+    private static final int BETA = 24;
+
+    /* Los elementos, por índice. */
+    private T[] elementos;
+    /* Dónde empiezan los vecinos de cada vértice; tiene n+1 entradas. */
+    private int[] desplazamientos;
+    /* Los índices de los vecinos de todos los vértices, uno tras otro. */
+    private int[] vecinos;
+    /* El índice de cada elemento; se construye con la primera búsqueda. */
+    private volatile HashMap<T, Integer> indices;
+
+    /* Construye la fotografía con los arreglos recibidos, que ya no se
+       modifican. */
+    GraficaCSR(T[] elementos, int[] desplazamientos, int[] vecinos) {
+        this.elementos = elementos;
+        this.desplazamientos = desplazamientos;
+        this.vecinos = vecinos;
+    }
+
+    /**
+     * Regresa el número de vértices.
+     * @return el número de vértices.
+     */
+    public int getElementos() {
+        return elementos.length;
+    }
+
+    /**
+     * Regresa el número de aristas.
+     * @return el número de aristas.
+     */
+    public int getAristas() {
+        return vecinos.length / 2;
+    }
+
+    /**
+     * Regresa el elemento del vértice con el índice recibido.
+     * @param i el índice del vértice.
+     * @return el elemento del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public T get(int i) {
+        revisa(i);
+        return elementos[i];
+    }
+
+    /**
+     * Regresa el índice del vértice del elemento recibido. La primera
+     * búsqueda construye el diccionario de índices, en tiempo
+     * <i>O</i>(<i>n</i>); las demás toman tiempo constante esperado.
+     * @param elemento el elemento del que se busca el índice.
+     * @return el índice del vértice del elemento, o -1 si el elemento no está
+     *         en la gráfica.
+     */
+    public int indiceDe(T elemento) {
+        HashMap<T, Integer> indices = this.indices;
+        if (indices == null) {
+            /* Si dos hilos lo construyen a la vez, los dos diccionarios son
+               iguales y cualquiera sirve. */
+            indices = new HashMap<>(elementos.length * 4 / 3 + 1);
+            for (int i = 0; i < elementos.length; i++) indices.put(elementos[i], i);
+            this.indices = indices;
+        }
+        Integer i = indices.get(elemento);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * Regresa el grado del vértice con el índice recibido.
+     * @param i el índice del vértice.
+     * @return el grado del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public int getGrado(int i) {
+        revisa(i);
+        return desplazamientos[i + 1] - desplazamientos[i];
+    }
+
+    /**
+     * Regresa el índice del <em>k</em>-ésimo vecino del vértice con el índice
+     * recibido.
+     * @param i el índice del vértice.
+     * @param k el número del vecino, entre 0 y el grado menos uno.
+     * @return el índice del <em>k</em>-ésimo vecino.
+     * @throws ExcepcionIndiceInvalido si alguno de los índices es inválido.
+     */
+    public int getVecino(int i, int k) {
+        if (k < 0 || k >= getGrado(i)) throw new ExcepcionIndiceInvalido("El vecino es inválido");
+        return vecinos[desplazamientos[i] + k];
+    }
+
+    /**
+     * Nos dice si dos vértices son vecinos. Recorre los vecinos del de menor
+     * grado.
+     * @param i el índice del primer vértice.
+     * @param j el índice del segundo vértice.
+     * @return <code>true</code> si los vértices son vecinos,
+     *         <code>false</code> en otro caso.
+     * @throws ExcepcionIndiceInvalido si alguno de los índices es inválido.
+     */
+    public boolean sonVecinos(int i, int j) {
+        if (getGrado(i) > getGrado(j)) {
+            int aux = i;
+            i = j;
+            j = aux;
+        }
+        for (int k = desplazamientos[i]; k < desplazamientos[i + 1]; k++)
+            if (vecinos[k] == j) return true;
+        return false;
+    }
+
+    /**
+     * Regresa los índices de los vértices alcanzables desde el vértice
+     * recibido, en el orden de BFS.
+     * @param origen el índice del vértice donde empieza el recorrido.
+     * @return los índices de los vértices en el orden en que se visitan.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public int[] bfs(int origen) {
+        revisa(origen);
+        int[] cola = new int[elementos.length];
+        int n = recorre(origen, cola, true, new long[palabras()]);
+        return recorta(cola, n);
+    }
+
+    /**
+     * Regresa los índices de los vértices alcanzables desde el vértice
+     * recibido, en el orden de DFS; el orden es el mismo que el de {@link
+     * Grafica#dfs}.
+     * @param origen el índice del vértice donde empieza el recorrido.
+     * @return los índices de los vértices en el orden en que se visitan.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public int[] dfs(int origen) {
+        revisa(origen);
+        int[] orden = new int[elementos.length];
+        int n = recorre(origen, orden, false, new long[palabras()]);
+        return recorta(orden, n);
+    }
+
+    /**
+     * Nos dice si la gráfica es conexa. La gráfica vacía es conexa.
+     * @return <code>true</code> si la gráfica es conexa, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esConexa() {
+        if (elementos.length == 0) return true;
+        if (elementos.length >= UMBRAL_PARALELO) {
+            for (int nivel : niveles(0))
+                if (nivel == -1) return false;
+            return true;
+        }
+        return recorre(0, new int[elementos.length], true, new long[palabras()]) == elementos.length;
+    }
+
+    /**
+     * Regresa el nivel de BFS de cada vértice a partir del vértice recibido,
+     * es decir, su distancia en aristas. Cada nivel se expande en paralelo en
+     * el {@link ForkJoinPool#commonPool}, de arriba hacia abajo mientras la
+     * frontera es pequeña y de abajo hacia arriba cuando la frontera toca
+     * muchas de las aristas por explorar, como propone Beamer.
+     * @param origen el índice del vértice donde empieza el recorrido.
+     * @return el nivel de cada vértice, o -1 si no es alcanzable.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public int[] niveles(int origen) {
+        revisa(origen);
+        int n = elementos.length;
+        AtomicIntegerArray niveles = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) niveles.set(i, -1);
+        niveles.set(origen, 0);
+
+        IntLista frontera = new IntLista();
+        frontera.agrega(origen);
+        long porExplorar = vecinos.length - grado(origen);
+        boolean ascendente = false;
+
+        for (int nivel = 1; !frontera.esVacia(); nivel++) {
+            long deFrontera = 0;
+            for (int i = 0; i < frontera.getElementos(); i++) deFrontera += grado(frontera.get(i));
+
+            if (!ascendente && deFrontera > porExplorar / ALFA) ascendente = true;
+            else if (ascendente && frontera.getElementos() < n / BETA) ascendente = false;
+
+            Expansion expansion;
+            if (ascendente) {
+                long[] enFrontera = new long[palabras()];
+                for (int i = 0; i < frontera.getElementos(); i++) marca(enFrontera, frontera.get(i));
+                expansion = new Expansion(0, n, frontera, enFrontera, niveles, nivel);
+            } else {
+                expansion = new Expansion(0, frontera.getElementos(), frontera, null, niveles, nivel);
+            }
+            frontera = ForkJoinPool.commonPool().invoke(expansion);
+
+            for (int i = 0; i < frontera.getElementos(); i++) porExplorar -= grado(frontera.get(i));
+        }
+
+        int[] resultado = new int[n];
+        for (int i = 0; i < n; i++) resultado[i] = niveles.get(i);
+        return resultado;
+    }
+
+    /**
+     * Regresa la componente conexa de cada vértice. Las componentes se numeran
+     * desde 0 en el orden de su vértice de menor índice.
+     * @return un arreglo con el número de componente de cada vértice.
+     */
+    public int[] componentes() {
+        int[] componentes = new int[elementos.length];
+        int[] cola = new int[elementos.length];
+        long[] visitados = new long[palabras()];
+        int c = 0;
+
+        for (int i = 0; i < elementos.length; i++) {
+            if (visitado(visitados, i)) continue;
+            int n = recorre(i, cola, true, visitados);
+            for (int k = 0; k < n; k++) componentes[cola[k]] = c;
+            c++;
+        }
+        return componentes;
+    }
+
+    /* Recorre la componente del origen en BFS o en DFS, escribiendo los
+       visitados en orden; regresa cuántos fueron. En BFS el mismo arreglo
+       del orden sirve de cola. Los vértices se marcan al meterse, como en
+       Grafica. */
+    private int recorre(int origen, int[] orden, boolean amplitud, long[] visitados) {
+        marca(visitados, origen);
+
+        if (amplitud) {
+            int cabeza = 0, rabo = 0;
+            orden[rabo++] = origen;
+            while (cabeza < rabo) {
+                int v = orden[cabeza++];
+                for (int k = desplazamientos[v]; k < desplazamientos[v + 1]; k++) {
+                    int u = vecinos[k];
+                    if (!visitado(visitados, u)) {
+                        marca(visitados, u);
+                        orden[rabo++] = u;
+                    }
+                }
+            }
+            return rabo;
+        }
+
+        int[] pila = new int[elementos.length];
+        int tope = 0, n = 0;
+        pila[tope++] = origen;
+        while (tope > 0) {
+            int v = pila[--tope];
+            orden[n++] = v;
+            for (int k = desplazamientos[v]; k < desplazamientos[v + 1]; k++) {
+                int u = vecinos[k];
+                if (!visitado(visitados, u)) {
+                    marca(visitados, u);
+                    pila[tope++] = u;
+                }
+            }
+        }
+        return n;
+    }
+
+    /* Regresa el grado de un vértice, sin revisar el índice. */
+    private int grado(int i) {
+        return desplazamientos[i + 1] - desplazamientos[i];
+    }
+
+    /* Regresa el número de palabras de 64 bits para marcar los vértices. */
+    private int palabras() {
+        return (elementos.length + 63) >>> 6;
+    }
+
+    /* Nos dice si el vértice está marcado. */
+    static boolean visitado(long[] visitados, int i) {
+        return (visitados[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /* Marca el vértice. */
+    static void marca(long[] visitados, int i) {
+        visitados[i >>> 6] |= 1L << i;
+    }
+
+    /* Regresa los primeros n elementos del arreglo. */
+    private static int[] recorta(int[] arreglo, int n) {
+        if (n == arreglo.length) return arreglo;
+        int[] recortado = new int[n];
+        System.arraycopy(arreglo, 0, recortado, 0, n);
+        return recortado;
+    }
+
+    /* Revisa que el índice sea de un vértice. */
+    private void revisa(int i) {
+        if (i < 0 || i >= elementos.length) throw new ExcepcionIndiceInvalido("El índice es inválido");
+    }
+}
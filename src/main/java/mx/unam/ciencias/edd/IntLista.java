@@ -0,0 +1,300 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * <p>Clase para listas de enteros primitivos.</p>
+ *
+ * <p>La lista guarda sus elementos en un arreglo de <code>int</code> que crece
+ * al doble cuando se llena, por lo que no crea un nodo ni un {@link Integer}
+ * por elemento, y obtener el <em>i</em>-ésimo elemento toma tiempo
+ * constante.</p>
+ *
+ * <p>La lista es una {@link Coleccion} de {@link Integer}, para poder usarse
+ * directamente donde se espera una colección; su iterador es un {@link
+ * PrimitiveIterator.OfInt} para recorrerla sin convertir los elementos.</p>
+ */
+public class IntLista implements Coleccion<Integer> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements PrimitiveIterator.OfInt {
+
+        /* Índice del siguiente elemento. */
+        private int indice;
+
+        /* Nos dice si hay un elemento siguiente. */
+        @Override public boolean hasNext() {
+            return indice < elementos;
+        }
+
+        /* Nos da el elemento siguiente. */
+        @Override public int nextInt() {
+            if(!hasNext()) throw new NoSuchElementException("No hay elemento siguiente");
+            return arreglo[indice++];
+        }
+    }
+
+    /* Capacidad inicial del arreglo. */
+    private static final int CAPACIDAD = 16;
+
+    /* El arreglo de elementos. */
+    private int[] arreglo;
+    /* Número de elementos en la lista. */
+    private int elementos;
+
+    /**
+     * Constructor sin parámetros.
+     */
+    public IntLista() {
+        this(CAPACIDAD);
+    }
+
+    /**
+     * Construye una lista vacía con capacidad para el número de elementos
+     * recibido antes de tener que crecer.
+     * @param capacidad la capacidad inicial de la lista.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    public IntLista(int capacidad) {
+        if(capacidad < 0) throw new IllegalArgumentException("La capacidad es negativa");
+        arreglo = new int[capacidad];
+    }
+
+    /**
+     * Regresa la longitud de la lista. El método es idéntico a {@link
+     * #getElementos}.
+     * @return la longitud de la lista, el número de elementos que contiene.
+     */
+    public int getLongitud() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el número elementos en la lista. El método es idéntico a {@link
+     * #getLongitud}.
+     * @return el número elementos en la lista.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si la lista es vacía.
+     * @return <code>true</code> si la lista es vacía, <code>false</code> en
+     *         otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Agrega un elemento al final de la lista.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    @Override public void agrega(Integer elemento) {
+        if(elemento == null) throw new IllegalArgumentException("El elemento es nulo");
+        agrega(elemento.intValue());
+    }
+
+    /**
+     * Agrega un entero al final de la lista.
+     * @param elemento el entero a agregar.
+     */
+    public void agrega(int elemento) {
+        if(elementos == arreglo.length) crece(elementos + 1);
+        arreglo[elementos++] = elemento;
+    }
+
+    /**
+     * Agrega al final de la lista todos los elementos de otra lista, en el
+     * mismo orden.
+     * @param lista la lista cuyos elementos se agregan.
+     */
+    public void concatena(IntLista lista) {
+        int n = lista.elementos;
+        if(elementos + n > arreglo.length) crece(elementos + n);
+        System.arraycopy(lista.arreglo, 0, arreglo, elementos, n);
+        elementos += n;
+    }
+
+    /* Crece el arreglo para que quepan al menos n elementos. */
+    private void crece(int n) {
+        int capacidad = Math.max(n, arreglo.length * 2);
+        int[] nuevo = new int[Math.max(capacidad, CAPACIDAD)];
+        System.arraycopy(arreglo, 0, nuevo, 0, elementos);
+        arreglo = nuevo;
+    }
+
+    /**
+     * Elimina la primera aparición de un elemento de la lista. Si el elemento
+     * no está contenido en la lista, el método no la modifica.
+     * @param elemento el elemento a eliminar.
+     */
+    @Override public void elimina(Integer elemento) {
+        int i = indiceDe(elemento);
+        if(i == -1) return;
+
+        System.arraycopy(arreglo, i + 1, arreglo, i, elementos - i - 1);
+        elementos--;
+    }
+
+    /**
+     * Nos dice si un elemento está en la lista.
+     * @param elemento el elemento que queremos saber si está en la lista.
+     * @return <code>true</code> si <code>elemento</code> está en la lista,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(Integer elemento) {
+        return indiceDe(elemento) != -1;
+    }
+
+    /**
+     * Regresa el índice del elemento recibido en la lista.
+     * @param elemento el elemento del que se busca el índice.
+     * @return el índice del elemento recibido en la lista, o -1 si el elemento
+     *         no está contenido en la lista.
+     */
+    public int indiceDe(int elemento) {
+        for(int i = 0; i < elementos; i++)
+            if(arreglo[i] == elemento) return i;
+        return -1;
+    }
+
+    /**
+     * Regresa el <em>i</em>-ésimo elemento de la lista.
+     * @param i el índice del elemento que queremos.
+     * @return el <em>i</em>-ésimo elemento de la lista.
+     * @throws ExcepcionIndiceInvalido si <em>i</em> es menor que cero o mayor o
+     *         igual que el número de elementos en la lista.
+     */
+    public int get(int i) {
+        if(i < 0 || i >= elementos) throw new ExcepcionIndiceInvalido("El indice es inválido");
+        return arreglo[i];
+    }
+
+    /**
+     * Regresa la reversa de la lista.
+     * @return una nueva lista que es la reversa la que manda llamar el método.
+     */
+    public IntLista reversa() {
+        IntLista listaR = new IntLista(elementos);
+        for(int i = elementos - 1; i >= 0; i--) listaR.arreglo[listaR.elementos++] = arreglo[i];
+        return listaR;
+    }
+
+    /**
+     * Regresa una copia de la lista. La copia tiene los mismos elementos que la
+     * lista que manda llamar el método, en el mismo orden.
+     * @return una copia de la lista.
+     */
+    public IntLista copia() {
+        IntLista listaC = new IntLista(elementos);
+        listaC.concatena(this);
+        return listaC;
+    }
+
+    /**
+     * Regresa una lista genérica con los mismos elementos, en el mismo orden.
+     * @return una lista genérica con los elementos de la lista.
+     */
+    public Lista<Integer> toLista() {
+        Lista<Integer> lista = new Lista<>();
+        for(int i = 0; i < elementos; i++) lista.agrega(arreglo[i]);
+        return lista;
+    }
+
+    /**
+     * Limpia la lista de elementos, dejándola vacía.
+     */
+    @Override public void limpia() {
+        elementos = 0;
+    }
+
+    /**
+     * Regresa una copia de la lista, pero ordenada de menor a mayor.
+     * @return una copia de la lista, pero ordenada.
+     */
+    public IntLista mergeSort() {
+        IntLista ordenada = copia();
+        int[] a = ordenada.arreglo;
+        int[] b = new int[elementos];
+
+        for(int ancho = 1; ancho < elementos; ancho *= 2) {
+            for(int ini = 0; ini < elementos; ini += 2 * ancho) {
+                int mitad = Math.min(ini + ancho, elementos);
+                int fin = Math.min(ini + 2 * ancho, elementos);
+                mezcla(a, b, ini, mitad, fin);
+            }
+            int[] aux = a;
+            a = b;
+            b = aux;
+        }
+
+        ordenada.arreglo = a;
+        return ordenada;
+    }
+
+    /* Mezcla las mitades ordenadas [ini, mitad) y [mitad, fin) de a en b. */
+    private static void mezcla(int[] a, int[] b, int ini, int mitad, int fin) {
+        int i = ini, j = mitad, k = ini;
+
+        while(i < mitad && j < fin)
+            b[k++] = a[i] <= a[j] ? a[i++] : a[j++];
+        while(i < mitad) b[k++] = a[i++];
+        while(j < fin) b[k++] = a[j++];
+    }
+
+    /**
+     * Regresa una copia de la lista recibida, pero ordenada.
+     * @param lista la lista que se ordenará.
+     * @return una copia de la lista recibida, pero ordenada.
+     */
+    public static IntLista mergeSort(IntLista lista) {
+        return lista.mergeSort();
+    }
+
+    /**
+     * Regresa una representación en cadena de la lista.
+     * @return una representación en cadena de la lista.
+     */
+    @Override public String toString() {
+        if(esVacia()) return "[]";
+
+        StringBuilder cadena = new StringBuilder("[");
+        for(int i = 0; i < elementos - 1; i++)
+            cadena.append(arreglo[i]).append(", ");
+        cadena.append(arreglo[elementos - 1]).append("]");
+
+        return cadena.toString();
+    }
+
+    /**
+     * Nos dice si la lista es igual al objeto recibido.
+     * @param objeto el objeto con el que hay que comparar.
+     * @return <code>true</code> si la lista es igual al objeto recibido;
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object objeto) {
+        if (objeto == null || getClass() != objeto.getClass())
+            return false;
+        IntLista lista = (IntLista)objeto;
+
+        if(elementos != lista.elementos) return false;
+        for(int i = 0; i < elementos; i++)
+            if(arreglo[i] != lista.arreglo[i]) return false;
+        return true;
+    }
+
+    /**
+     * Regresa un iterador para recorrer la lista. El iterador puede regresar
+     * los elementos como enteros primitivos con {@link
+     * PrimitiveIterator.OfInt#nextInt}.
+     * @return un iterador para recorrer la lista.
+     */
+    @Override public PrimitiveIterator.OfInt iterator() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,273 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para montículos mínimos <em>d</em>-arios indexados.</p>
+ *
+ * <p>El montículo guarda identificadores enteros en el intervalo [0,
+ * <em>capacidad</em>) y una llave <code>double</code> por identificador, en
+ * arreglos primitivos paralelos: el montículo de identificadores, la posición
+ * de cada identificador en él y su llave. Comparar es comparar dos
+ * <code>double</code>, y reacomodar mueve enteros sin llamar a {@link
+ * ComparableIndexable#setIndice}. Cada vértice tiene <em>d</em> hijos (4 por
+ * omisión), lo que hace el árbol más bajo y deja a los hijos contiguos en
+ * memoria. Después de construido, el montículo no crea objetos.</p>
+ *
+ * <p>Como {@link MonticuloDijkstra} el montículo se construye a partir de
+ * valores indexables: el identificador de cada valor es su posición en la
+ * colección, y su índice es ese identificador mientras está en el montículo,
+ * o -1 después de eliminarlo.</p>
+ */
+public class MonticuloDArio<E> implements MonticuloDijkstra<ValorIndexable<E>> {
+
+    /** Número de hijos por omisión de cada vértice. */
+    public static final int ARIDAD = 4;
+
+    /* El número de hijos de cada vértice. */
+    private int aridad;
+    /* Los identificadores, en el orden del montículo. */
+    private int[] ids;
+    /* La posición de cada identificador en el montículo, o -1. */
+    private int[] posiciones;
+    /* La llave de cada identificador. */
+    private double[] llaves;
+    /* El valor de cada identificador; null si se construyó sin valores. */
+    private ValorIndexable<E>[] valores;
+    /* El número de elementos en el montículo. */
+    private int elementos;
+
+    /**
+     * Construye un montículo vacío 4-ario para identificadores en [0,
+     * <em>capacidad</em>).
+     * @param capacidad el número de identificadores.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    public MonticuloDArio(int capacidad) {
+        this(capacidad, ARIDAD);
+    }
+
+    /**
+     * Construye un montículo vacío para identificadores en [0,
+     * <em>capacidad</em>), con el número de hijos por vértice recibido.
+     * @param capacidad el número de identificadores.
+     * @param aridad el número de hijos de cada vértice.
+     * @throws IllegalArgumentException si la capacidad es negativa o la aridad
+     *         es menor que dos.
+     */
+    public MonticuloDArio(int capacidad, int aridad) {
+        if(capacidad < 0) throw new IllegalArgumentException("La capacidad es negativa");
+        if(aridad < 2) throw new IllegalArgumentException("La aridad es menor que dos");
+
+        this.aridad = aridad;
+        ids = new int[capacidad];
+        posiciones = new int[capacidad];
+        llaves = new double[capacidad];
+        for(int i = 0; i < capacidad; i++) posiciones[i] = -1;
+    }
+
+    /**
+     * Construye un montículo 4-ario a partir de una colección de valores
+     * indexables.
+     * @param coleccion la colección a partir de la cuál queremos construir el
+     *                  montículo.
+     */
+    public MonticuloDArio(Coleccion<ValorIndexable<E>> coleccion) {
+        this(coleccion, coleccion.getElementos(), ARIDAD);
+    }
+
+    /**
+     * Construye un montículo a partir de un iterable de valores indexables, en
+     * tiempo <i>O</i>(<i>n</i>).
+     * @param iterable el iterable a partir de la cuál queremos construir el
+     *                 montículo.
+     * @param n el número de elementos en el iterable.
+     * @param aridad el número de hijos de cada vértice.
+     * @throws IllegalArgumentException si la aridad es menor que dos.
+     */
+    @SuppressWarnings("unchecked")
+    public MonticuloDArio(Iterable<ValorIndexable<E>> iterable, int n, int aridad) {
+        this(n, aridad);
+        valores = (ValorIndexable<E>[])new ValorIndexable[n];
+
+        for(ValorIndexable<E> valor : iterable) {
+            int id = elementos++;
+            valor.setIndice(id);
+            valores[id] = valor;
+            llaves[id] = valor.getValor();
+            ids[id] = id;
+            posiciones[id] = id;
+        }
+
+        for(int i = (elementos - 2) / aridad; i >= 0; i--) acomodaAbajo(i);
+    }
+
+    /**
+     * Agrega un identificador con su llave.
+     * @param id el identificador a agregar.
+     * @param llave la llave del identificador.
+     * @throws IllegalArgumentException si el identificador es inválido o ya
+     *         está en el montículo.
+     */
+    public void agrega(int id, double llave) {
+        if(id < 0 || id >= posiciones.length || posiciones[id] != -1)
+            throw new IllegalArgumentException("Identificador inválido");
+
+        llaves[id] = llave;
+        ids[elementos] = id;
+        posiciones[id] = elementos;
+        acomodaArriba(elementos++);
+    }
+
+    /**
+     * Elimina el identificador de llave mínima del montículo.
+     * @return el identificador de llave mínima.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    public int eliminaMinimo() {
+        if(elementos == 0) throw new IllegalStateException("Monticulo vacio");
+
+        int minimo = ids[0];
+        posiciones[minimo] = -1;
+        if(--elementos > 0) {
+            ids[0] = ids[elementos];
+            posiciones[ids[0]] = 0;
+            acomodaAbajo(0);
+        }
+        return minimo;
+    }
+
+    /**
+     * Decrementa la llave de un identificador del montículo.
+     * @param id el identificador.
+     * @param llave la nueva llave, que no puede ser mayor que la actual.
+     * @throws IllegalArgumentException si el identificador no está en el
+     *         montículo, o si la llave es mayor que la actual.
+     */
+    public void decrementa(int id, double llave) {
+        if(!contiene(id)) throw new IllegalArgumentException("Identificador inválido");
+        if(llave > llaves[id]) throw new IllegalArgumentException("La llave es mayor");
+
+        llaves[id] = llave;
+        acomodaArriba(posiciones[id]);
+    }
+
+    /**
+     * Regresa la llave de un identificador.
+     * @param id el identificador.
+     * @return la última llave que tuvo el identificador.
+     * @throws ExcepcionIndiceInvalido si el identificador es inválido.
+     */
+    public double getLlave(int id) {
+        if(id < 0 || id >= llaves.length) throw new ExcepcionIndiceInvalido("Identificador inválido");
+        return llaves[id];
+    }
+
+    /**
+     * Nos dice si un identificador está en el montículo.
+     * @param id el identificador.
+     * @return <code>true</code> si el identificador está en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int id) {
+        return id >= 0 && id < posiciones.length && posiciones[id] != -1;
+    }
+
+    /**
+     * Elimina el valor mínimo del montículo y le asigna índice -1.
+     * @return el valor mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío o se construyó
+     *         sin valores.
+     */
+    @Override public ValorIndexable<E> elimina() {
+        if(valores == null) throw new IllegalStateException("Monticulo sin valores");
+
+        ValorIndexable<E> minimo = valores[eliminaMinimo()];
+        minimo.setIndice(-1);
+        return minimo;
+    }
+
+    /**
+     * Reordena un valor en el montículo, tomando su valor actual como llave.
+     * Si el valor no está en el montículo no hace nada.
+     * @param elemento el valor que hay que reordenar.
+     */
+    @Override public void reordena(ValorIndexable<E> elemento) {
+        int id = elemento.getIndice();
+        if(valores == null || !contiene(id) || valores[id] != elemento) return;
+
+        llaves[id] = elemento.getValor();
+        acomodaArriba(posiciones[id]);
+        acomodaAbajo(posiciones[id]);
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo valor del montículo, por niveles.
+     * @param i el índice del valor que queremos.
+     * @return el <i>i</i>-ésimo valor del montículo.
+     * @throws NoSuchElementException si <i>i</i> es inválido o el montículo
+     *         se construyó sin valores.
+     */
+    @Override public ValorIndexable<E> get(int i) {
+        if(valores == null || i < 0 || i >= elementos) throw new NoSuchElementException("Index invalido");
+        return valores[ids[i]];
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+
+    /* Sube el identificador de la posición recibida mientras sea menor que su
+       padre, recorriendo a los padres hacia abajo en lugar de intercambiar. */
+    private void acomodaArriba(int i) {
+        int id = ids[i];
+        double llave = llaves[id];
+
+        while(i > 0) {
+            int padre = (i - 1) / aridad;
+            if(llaves[ids[padre]] <= llave) break;
+            ids[i] = ids[padre];
+            posiciones[ids[i]] = i;
+            i = padre;
+        }
+        ids[i] = id;
+        posiciones[id] = i;
+    }
+
+    /* Baja el identificador de la posición recibida mientras algún hijo sea
+       menor, recorriendo al menor de los hijos hacia arriba. */
+    private void acomodaAbajo(int i) {
+        int id = ids[i];
+        double llave = llaves[id];
+
+        while(true) {
+            int primero = aridad * i + 1;
+            if(primero >= elementos) break;
+
+            int menor = primero;
+            int fin = Math.min(primero + aridad, elementos);
+            for(int h = primero + 1; h < fin; h++)
+                if(llaves[ids[h]] < llaves[ids[menor]]) menor = h;
+
+            if(llaves[ids[menor]] >= llave) break;
+            ids[i] = ids[menor];
+            posiciones[ids[i]] = i;
+            i = menor;
+        }
+        ids[i] = id;
+        posiciones[id] = i;
+    }
+}
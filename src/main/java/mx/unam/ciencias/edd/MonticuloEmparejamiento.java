@@ -0,0 +1,342 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para montículos de emparejamiento (<i>pairing heaps</i>).</p>
+ *
+ * <p>El montículo es un árbol general donde cada vértice es menor o igual que
+ * sus hijos. Agregar y mezclar montículos sólo ligan dos raíces, en tiempo
+ * constante; eliminar el mínimo combina los hijos de la raíz en dos pasadas,
+ * en tiempo amortizado <i>O</i>(log <i>n</i>); y reordenar un elemento cuyo
+ * valor disminuyó lo corta de su padre y lo liga con la raíz, en tiempo
+ * amortizado mucho menor que el de eliminar.</p>
+ *
+ * <p>El índice de cada elemento es su manija: la posición de su vértice en un
+ * arreglo, que sólo cambia cuando se elimina otro elemento. Mientras el
+ * elemento está en el montículo, {@link #get} con su índice lo regresa.</p>
+ */
+public class MonticuloEmparejamiento<T extends ComparableIndexable<T>>
+    implements Coleccion<T>, MonticuloDijkstra<T> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+
+        /* Índice del iterador. */
+        private int indice;
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < elementos;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public T next() {
+            if(!hasNext()) throw new NoSuchElementException("No hay mas elementos.");
+            return vertices[indice++].elemento;
+        }
+    }
+
+    /* Clase interna privada para vértices. */
+    private class Vertice {
+
+        /* El elemento del vértice. */
+        private T elemento;
+        /* El primer hijo del vértice. */
+        private Vertice hijo;
+        /* El siguiente hermano del vértice. */
+        private Vertice hermano;
+        /* El hermano anterior, o el padre si es el primer hijo. */
+        private Vertice anterior;
+
+        /* Crea un vértice con el elemento recibido. */
+        public Vertice(T elemento) {
+            this.elemento = elemento;
+        }
+    }
+
+    /* Capacidad inicial del arreglo de vértices. */
+    private static final int CAPACIDAD = 16;
+
+    /* La raíz del montículo. */
+    private Vertice raiz;
+    /* Los vértices, indexados por el índice de su elemento. */
+    private Vertice[] vertices;
+    /* El número de elementos en el montículo. */
+    private int elementos;
+
+    /**
+     * Constructor sin parámetros.
+     */
+    public MonticuloEmparejamiento() {
+        vertices = nuevoArreglo(CAPACIDAD);
+    }
+
+    /**
+     * Constructor para montículo de emparejamiento que recibe una colección,
+     * en tiempo <i>O</i>(<i>n</i>).
+     * @param coleccion la colección a partir de la cuál queremos construir el
+     *                  montículo.
+     */
+    public MonticuloEmparejamiento(Coleccion<T> coleccion) {
+        this(coleccion, coleccion.getElementos());
+    }
+
+    /**
+     * Constructor para montículo de emparejamiento que recibe un iterable y el
+     * número de elementos en el mismo, en tiempo <i>O</i>(<i>n</i>).
+     * @param iterable el iterable a partir de la cuál queremos construir el
+     *                 montículo.
+     * @param n el número de elementos en el iterable.
+     */
+    public MonticuloEmparejamiento(Iterable<T> iterable, int n) {
+        vertices = nuevoArreglo(Math.max(n, CAPACIDAD));
+        for(T elemento : iterable) agrega(elemento);
+    }
+
+    /* Truco para crear arreglos genéricos. */
+    @SuppressWarnings("unchecked") private Vertice[] nuevoArreglo(int n) {
+        return (Vertice[])new MonticuloEmparejamiento.Vertice[n];
+    }
+
+    /**
+     * Agrega un nuevo elemento en el montículo, en tiempo constante.
+     * @param elemento el elemento a agregar en el montículo.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    @Override public void agrega(T elemento) {
+        if(elemento == null) throw new IllegalArgumentException("El elemento es nulo");
+
+        Vertice vertice = new Vertice(elemento);
+        registra(vertice);
+        raiz = liga(raiz, vertice);
+    }
+
+    /**
+     * Mezcla los elementos de otro montículo con los de éste, que deja vacío.
+     * Ligar los árboles toma tiempo constante; los índices de los elementos
+     * del montículo más pequeño se reasignan, en tiempo lineal en su tamaño.
+     * @param monticulo el montículo a mezclar.
+     * @throws IllegalArgumentException si el montículo es el mismo.
+     */
+    public void mezcla(MonticuloEmparejamiento<T> monticulo) {
+        if(monticulo == this) throw new IllegalArgumentException("No se puede mezclar un montículo consigo mismo");
+
+        if(monticulo.elementos > elementos) {
+            Vertice[] v = vertices;
+            vertices = monticulo.vertices;
+            monticulo.vertices = v;
+            int n = elementos;
+            elementos = monticulo.elementos;
+            monticulo.elementos = n;
+        }
+
+        for(int i = 0; i < monticulo.elementos; i++) registra(monticulo.vertices[i]);
+        raiz = liga(raiz, monticulo.raiz);
+
+        monticulo.raiz = null;
+        monticulo.vertices = nuevoArreglo(CAPACIDAD);
+        monticulo.elementos = 0;
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        if(esVacia()) throw new IllegalStateException("Monticulo vacio");
+
+        Vertice minimo = raiz;
+        raiz = combina(minimo.hijo);
+        minimo.hijo = null;
+        libera(minimo);
+        return minimo.elemento;
+    }
+
+    /**
+     * Elimina un elemento del montículo. Si el elemento no está en el
+     * montículo, no hace nada.
+     * @param elemento a eliminar del montículo.
+     */
+    @Override public void elimina(T elemento) {
+        if(!contiene(elemento)) return;
+
+        Vertice vertice = vertices[elemento.getIndice()];
+        if(vertice == raiz) {
+            elimina();
+            return;
+        }
+
+        corta(vertice);
+        raiz = liga(raiz, combina(vertice.hijo));
+        vertice.hijo = null;
+        libera(vertice);
+    }
+
+    /**
+     * Reordena un elemento cuyo valor disminuyó, cortándolo de su padre y
+     * ligándolo con la raíz. Si el valor del elemento aumentó hay que
+     * eliminarlo y volver a agregarlo. Si el elemento no está en el montículo,
+     * no hace nada.
+     * @param elemento el elemento que hay que reordenar.
+     */
+    @Override public void reordena(T elemento) {
+        if(!contiene(elemento)) return;
+
+        Vertice vertice = vertices[elemento.getIndice()];
+        if(vertice == raiz) return;
+        corta(vertice);
+        raiz = liga(raiz, vertice);
+    }
+
+    /**
+     * Nos dice si un elemento está contenido en el montículo.
+     * @param elemento el elemento que queremos saber si está contenido.
+     * @return <code>true</code> si el elemento está contenido,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        int i = elemento.getIndice();
+        return i >= 0 && i < elementos && vertices[i].elemento == elemento;
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el elemento con índice <i>i</i> del montículo.
+     * @param i el índice del elemento que queremos.
+     * @return el elemento con índice <i>i</i>.
+     * @throws NoSuchElementException si i es menor que cero, o mayor o igual
+     *         que el número de elementos.
+     */
+    @Override public T get(int i) {
+        if(i < 0 || i >= elementos) throw new NoSuchElementException("No hay elementos en esos indices");
+        return vertices[i].elemento;
+    }
+
+    /**
+     * Limpia el montículo de elementos, dejándolo vacío.
+     */
+    @Override public void limpia() {
+        for(int i = 0; i < elementos; i++) {
+            vertices[i].elemento.setIndice(-1);
+            vertices[i] = null;
+        }
+        raiz = null;
+        elementos = 0;
+    }
+
+    /**
+     * Regresa una representación en cadena del montículo.
+     * @return una representación en cadena del montículo.
+     */
+    @Override public String toString() {
+        String str = "";
+        for(int i = 0; i < elementos; i++)
+            str += (vertices[i].elemento.toString() + ", ");
+        return str;
+    }
+
+    /**
+     * Regresa un iterador para iterar el montículo, en el orden de los
+     * índices de sus elementos.
+     * @return un iterador para iterar el montículo.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+
+    /* Guarda el vértice al final del arreglo y le da ese índice. */
+    private void registra(Vertice vertice) {
+        if(elementos == vertices.length) {
+            Vertice[] nuevos = nuevoArreglo(elementos * 2);
+            System.arraycopy(vertices, 0, nuevos, 0, elementos);
+            vertices = nuevos;
+        }
+        vertice.elemento.setIndice(elementos);
+        vertices[elementos++] = vertice;
+    }
+
+    /* Quita el vértice del arreglo, moviendo el último a su lugar. */
+    private void libera(Vertice vertice) {
+        int i = vertice.elemento.getIndice();
+        Vertice ultimo = vertices[--elementos];
+        vertices[i] = ultimo;
+        ultimo.elemento.setIndice(i);
+        vertices[elementos] = null;
+        vertice.elemento.setIndice(-1);
+    }
+
+    /* Liga dos raíces: la mayor se vuelve el primer hijo de la menor. */
+    private Vertice liga(Vertice a, Vertice b) {
+        if(a == null) return b;
+        if(b == null) return a;
+        if(b.elemento.compareTo(a.elemento) < 0) {
+            Vertice t = a;
+            a = b;
+            b = t;
+        }
+
+        b.anterior = a;
+        b.hermano = a.hijo;
+        if(a.hijo != null) a.hijo.anterior = b;
+        a.hijo = b;
+        return a;
+    }
+
+    /* Corta al vértice, con su subárbol, de su padre y sus hermanos. */
+    private void corta(Vertice vertice) {
+        if(vertice.anterior.hijo == vertice) vertice.anterior.hijo = vertice.hermano;
+        else vertice.anterior.hermano = vertice.hermano;
+        if(vertice.hermano != null) vertice.hermano.anterior = vertice.anterior;
+        vertice.anterior = vertice.hermano = null;
+    }
+
+    /* Combina en un árbol la lista de hermanos que empieza en el vértice
+       recibido: primero los liga por pares de izquierda a derecha, y después
+       liga los pares de derecha a izquierda. */
+    private Vertice combina(Vertice primero) {
+        Vertice pares = null;
+        Vertice a = primero;
+        while(a != null) {
+            Vertice b = a.hermano;
+            Vertice siguiente = b != null ? b.hermano : null;
+            a.anterior = a.hermano = null;
+            if(b != null) {
+                b.anterior = b.hermano = null;
+                a = liga(a, b);
+            }
+            /* Los pares se apilan usando el hermano como siguiente. */
+            a.hermano = pares;
+            pares = a;
+            a = siguiente;
+        }
+
+        Vertice resultado = null;
+        while(pares != null) {
+            Vertice p = pares;
+            pares = pares.hermano;
+            p.hermano = null;
+            resultado = liga(resultado, p);
+        }
+        return resultado;
+    }
+}
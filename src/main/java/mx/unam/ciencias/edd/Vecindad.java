@@ -0,0 +1,250 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para los vecinos de un vértice de gráfica, con el peso de la arista
+ * a cada uno.</p>
+ *
+ * <p>Mientras el grado es pequeño los vecinos se guardan en un arreglo, con
+ * sus pesos en otro paralelo, donde buscar es recorrer unas cuantas
+ * posiciones contiguas. Los arreglos se crean con el primer vecino y crecen
+ * al doble hasta {@link #UMBRAL}, así que un vértice aislado no ocupa espacio
+ * para vecinos; al rebasar el umbral se pasan a un diccionario de
+ * dispersión, donde agregar, buscar y eliminar toman tiempo constante
+ * esperado. En los dos casos los vecinos se recorren en el orden en que
+ * fueron agregados.</p>
+ */
+class Vecindad<E> implements Iterable<E> {
+
+    /* Clase interna privada para iteradores del arreglo. */
+    private class Iterador implements Iterator<E> {
+
+        /* Índice del siguiente vecino. */
+        private int indice;
+
+        /* Nos dice si hay un vecino siguiente. */
+        @Override public boolean hasNext() {
+            return indice < elementos;
+        }
+
+        /* Regresa el siguiente vecino. */
+        @Override public E next() {
+            if(!hasNext()) throw new NoSuchElementException("No hay vecino siguiente");
+            return arreglo[indice++];
+        }
+    }
+
+    /* Clase interna para iteradores que también dan el peso de la arista al
+       último vecino regresado, sin volver a buscarlo: en el arreglo lo leen
+       de la misma posición, y en el diccionario de la misma entrada. */
+    class IteradorPesos implements Iterator<E> {
+
+        /* Índice del siguiente vecino del arreglo. */
+        private int indice;
+        /* Las entradas del diccionario; null si los vecinos están en el
+           arreglo. */
+        private Iterator<Map.Entry<E, Double>> entradas;
+        /* El peso de la arista al último vecino regresado. */
+        private double peso;
+
+        /* Construye el iterador. */
+        private IteradorPesos() {
+            if(conjunto != null) entradas = conjunto.entrySet().iterator();
+        }
+
+        /* Nos dice si hay un vecino siguiente. */
+        @Override public boolean hasNext() {
+            return entradas != null ? entradas.hasNext() : indice < elementos;
+        }
+
+        /* Regresa el siguiente vecino. */
+        @Override public E next() {
+            if(entradas != null) {
+                Map.Entry<E, Double> entrada = entradas.next();
+                peso = entrada.getValue();
+                return entrada.getKey();
+            }
+            if(!hasNext()) throw new NoSuchElementException("No hay vecino siguiente");
+            peso = pesos[indice];
+            return arreglo[indice++];
+        }
+
+        /* Regresa el peso de la arista al último vecino regresado. */
+        public double getPeso() {
+            return peso;
+        }
+    }
+
+    /** Grado a partir del cual los vecinos se guardan en un conjunto. */
+    public static final int UMBRAL = 8;
+
+    /* Capacidad inicial de los arreglos. */
+    private static final int CAPACIDAD = 2;
+
+    /* Los vecinos mientras caben en el arreglo; null si están en el
+       diccionario o si todavía no hay vecinos. */
+    private E[] arreglo;
+    /* Los pesos de los vecinos del arreglo. */
+    private double[] pesos;
+    /* Los vecinos y sus pesos cuando el grado rebasa el umbral; null si no. */
+    private LinkedHashMap<E, Double> conjunto;
+    /* Número de vecinos en el arreglo. */
+    private int elementos;
+
+    /**
+     * Constructor único. No crea los arreglos hasta que se agrega el primer
+     * vecino.
+     */
+    public Vecindad() {}
+
+    /**
+     * Regresa el número de vecinos.
+     * @return el número de vecinos.
+     */
+    public int getElementos() {
+        return conjunto != null ? conjunto.size() : elementos;
+    }
+
+    /**
+     * Agrega un vecino al final. No revisa si ya estaba.
+     * @param vecino el vecino a agregar.
+     * @param peso el peso de la arista al vecino.
+     */
+    public void agrega(E vecino, double peso) {
+        if(conjunto != null) {
+            conjunto.put(vecino, peso);
+            return;
+        }
+        if(arreglo == null) {
+            arreglo = nuevoArreglo(CAPACIDAD);
+            pesos = new double[CAPACIDAD];
+        } else if(elementos == arreglo.length && elementos < UMBRAL) {
+            int capacidad = Math.min(2 * elementos, UMBRAL);
+            E[] nuevo = nuevoArreglo(capacidad);
+            double[] nuevos = new double[capacidad];
+            System.arraycopy(arreglo, 0, nuevo, 0, elementos);
+            System.arraycopy(pesos, 0, nuevos, 0, elementos);
+            arreglo = nuevo;
+            pesos = nuevos;
+        }
+        if(elementos < arreglo.length) {
+            pesos[elementos] = peso;
+            arreglo[elementos++] = vecino;
+            return;
+        }
+
+        conjunto = new LinkedHashMap<>();
+        for(int i = 0; i < elementos; i++) conjunto.put(arreglo[i], pesos[i]);
+        conjunto.put(vecino, peso);
+        arreglo = null;
+        pesos = null;
+        elementos = 0;
+    }
+
+    /**
+     * Nos dice si un vértice es vecino.
+     * @param vecino el vértice a buscar.
+     * @return <code>true</code> si el vértice es vecino, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean contiene(E vecino) {
+        if(conjunto != null) return conjunto.containsKey(vecino);
+        return indiceDe(vecino) != -1;
+    }
+
+    /**
+     * Regresa el peso de la arista a un vecino.
+     * @param vecino el vecino.
+     * @return el peso de la arista al vecino, o -1 si no es vecino.
+     */
+    public double getPeso(E vecino) {
+        if(conjunto != null) {
+            Double peso = conjunto.get(vecino);
+            return peso != null ? peso : -1;
+        }
+        int i = indiceDe(vecino);
+        return i != -1 ? pesos[i] : -1;
+    }
+
+    /**
+     * Define el peso de la arista a un vecino.
+     * @param vecino el vecino.
+     * @param peso el nuevo peso de la arista.
+     * @return <code>true</code> si el vértice era vecino, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean setPeso(E vecino, double peso) {
+        if(conjunto != null) return conjunto.replace(vecino, peso) != null;
+        int i = indiceDe(vecino);
+        if(i == -1) return false;
+        pesos[i] = peso;
+        return true;
+    }
+
+    /**
+     * Elimina un vecino, conservando el orden de los demás. Si el grado baja a
+     * la mitad del umbral los vecinos regresan al arreglo.
+     * @param vecino el vecino a eliminar.
+     * @return <code>true</code> si el vértice era vecino, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean elimina(E vecino) {
+        if(conjunto != null) {
+            if(conjunto.remove(vecino) == null) return false;
+            if(conjunto.size() <= UMBRAL / 2) {
+                arreglo = nuevoArreglo(UMBRAL);
+                pesos = new double[UMBRAL];
+                for(Map.Entry<E, Double> e : conjunto.entrySet()) {
+                    pesos[elementos] = e.getValue();
+                    arreglo[elementos++] = e.getKey();
+                }
+                conjunto = null;
+            }
+            return true;
+        }
+
+        int i = indiceDe(vecino);
+        if(i == -1) return false;
+        System.arraycopy(arreglo, i + 1, arreglo, i, elementos - i - 1);
+        System.arraycopy(pesos, i + 1, pesos, i, elementos - i - 1);
+        arreglo[--elementos] = null;
+        return true;
+    }
+
+    /* Regresa el índice del vecino en el arreglo, o -1. */
+    private int indiceDe(E vecino) {
+        for(int i = 0; i < elementos; i++)
+            if(arreglo[i].equals(vecino)) return i;
+        return -1;
+    }
+
+    /* Crea un arreglo genérico. */
+    @SuppressWarnings("unchecked")
+    private E[] nuevoArreglo(int n) {
+        return (E[])new Object[n];
+    }
+
+    /**
+     * Regresa un iterador para recorrer los vecinos en el orden en que fueron
+     * agregados.
+     * @return un iterador para recorrer los vecinos.
+     */
+    @Override public Iterator<E> iterator() {
+        if(conjunto != null) return conjunto.keySet().iterator();
+        return new Iterador();
+    }
+
+    /**
+     * Regresa un iterador para recorrer los vecinos en el orden en que fueron
+     * agregados, que además da el peso de la arista a cada uno en tiempo
+     * constante.
+     * @return un iterador para recorrer los vecinos con sus pesos.
+     */
+    public IteradorPesos iteradorPesos() {
+        return new IteradorPesos();
+    }
+}
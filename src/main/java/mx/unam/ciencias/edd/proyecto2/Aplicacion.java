@@ -4,16 +4,112 @@ import mx.unam.ciencias.edd.*;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 public class Aplicacion {
 
+    /* Bandera para indicar el archivo de salida (el directorio en modo lote). */
+    private static final String BANDERA_SALIDA = "-o";
+    /* Bandera para indicar el directorio o manifiesto del modo lote. */
+    private static final String BANDERA_LOTE = "-b";
+    /* Bandera para indicar el número de hilos del modo lote o servidor. */
+    private static final String BANDERA_HILOS = "-j";
+    /* Bandera para indicar el puerto del modo servidor. */
+    private static final String BANDERA_SERVIDOR = "-s";
+    /* Bandera para indicar el directorio del caché en disco. */
+    private static final String BANDERA_CACHE = "-c";
+    /* Bandera para indicar los MiB del caché en memoria del modo lote o servidor. */
+    private static final String BANDERA_MEMORIA = "-m";
+    /* Bandera para indicar la disposición de los árboles. */
+    private static final String BANDERA_LAYOUT = "-l";
+
     private String[] args;
 
+    /* Archivo donde se guarda el SVG; null si se imprime en la salida estándar. */
+    private String archivoSalida;
+    /* Directorio o manifiesto del modo lote; null si no es modo lote. */
+    private String lote;
+    /* Puerto del modo servidor; -1 si no es modo servidor. */
+    private int puerto = -1;
+    /* Número de hilos del modo lote o servidor. */
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    /* Directorio del caché en disco; null si no hay caché en disco. */
+    private String directorioCache;
+    /* MiB del caché en memoria del modo lote o servidor. */
+    private int memoriaCache = 64;
+    /* Disposición de los árboles. */
+    private TreeLayout layout = TreeLayout.CLASSIC;
+
     public Aplicacion(String[] args) {
-        this.args = args;
+        Lista<String> restantes = new Lista<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case BANDERA_SALIDA :
+                    archivoSalida = valorBandera(args, ++i);
+                    break;
+                case BANDERA_LOTE :
+                    lote = valorBandera(args, ++i);
+                    break;
+                case BANDERA_HILOS :
+                    hilos = enteroBandera(args, ++i);
+                    break;
+                case BANDERA_SERVIDOR :
+                    puerto = enteroBandera(args, ++i);
+                    break;
+                case BANDERA_CACHE :
+                    directorioCache = valorBandera(args, ++i);
+                    break;
+                case BANDERA_MEMORIA :
+                    memoriaCache = enteroBandera(args, ++i);
+                    break;
+                case BANDERA_LAYOUT :
+                    layout = TreeLayout.getLayout(valorBandera(args, ++i));
+                    if (layout == null)
+                        throw new IllegalArgumentException("Uso: la bandera " + BANDERA_LAYOUT + " admite classic o tidy.");
+                    break;
+                default:
+                    restantes.agrega(args[i]);
+            }
+        }
+
+        if (lote != null && !restantes.esVacia())
+            throw new IllegalArgumentException("Uso: la bandera " + BANDERA_LOTE + " no admite más entradas.");
+        if (puerto != -1 && (lote != null || !restantes.esVacia()))
+            throw new IllegalArgumentException("Uso: la bandera " + BANDERA_SERVIDOR + " no admite más entradas.");
+
+        this.args = new String[restantes.getElementos()];
+        int i = 0;
+        for (String arg : restantes) this.args[i++] = arg;
+    }
+
+    /* Regresa el valor de la bandera en la posición anterior a i. */
+    private static String valorBandera(String[] args, int i) {
+        if (i == args.length)
+            throw new IllegalArgumentException("Uso: la bandera " + args[i - 1] + " requiere un valor.");
+        return args[i];
     }
 
-    public void ejecuta() {
+    /* Regresa el valor entero de la bandera en la posición anterior a i. */
+    private static int enteroBandera(String[] args, int i) {
+        try {
+            return Integer.parseInt(valorBandera(args, i));
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("Uso: la bandera " + args[i - 1] + " requiere un entero.");
+        }
+    }
+
+    /**
+     * Ejecuta la aplicación.
+     * @return <code>true</code> si todo se graficó, <code>false</code> si
+     *         algún archivo del lote falló.
+     */
+    public boolean ejecuta() {
+        if (lote != null) return ejecutaLote();
+        if (puerto != -1) return ejecutaServidor();
 
         Entrada entrada = new Entrada(args);
 
@@ -24,67 +120,159 @@ public class Aplicacion {
         }
 
         Estructuras estructura = Estructuras.getEstructura(entrada.getEstructura());
-        Lista<Integer> elementos = entrada.getElementos();
-        String svgGraph;
+        if (directorioCache != null) {
+            ejecutaConCache(estructura, entrada.getElementos());
+            return true;
+        }
+
+        StructGrapher grapher = getGrapher(estructura, entrada.getElementos(), layout);
+
+        if (grapher == null) {
+            System.out.println("Estructura no válida");
+            return true;
+        }
+
+        if (archivoSalida != null) guardarSVGEnArchivo(grapher, archivoSalida);
+        else imprimeSVG(grapher);
+        return true;
+    }
+
+    /* Grafica una sola entrada usando el caché en disco. */
+    private void ejecutaConCache(Estructuras estructura, IntLista elementos) {
+        byte[] svg;
+        try {
+            svg = creaCache(0).grafica(estructura, elementos, layout);
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("Error con el caché: " + ioe.getMessage());
+        }
+
+        if (svg == null) {
+            System.out.println("Estructura no válida");
+            return;
+        }
+
+        try {
+            if (archivoSalida != null) {
+                Files.write(Paths.get(archivoSalida), svg);
+                System.out.println("Se ha guardado el gráfico SVG en el archivo: " + archivoSalida);
+            } else {
+                System.out.write(svg);
+                System.out.println();
+            }
+        } catch (IOException e) {
+            System.err.println("Error al escribir el SVG: " + e.getMessage());
+        }
+    }
 
+    /* Crea el caché con los MiB en memoria recibidos; regresa null si no hay
+       ni memoria ni directorio para el caché. */
+    private CacheSVG creaCache(int memoria) {
+        if (memoria <= 0 && directorioCache == null) return null;
+        try {
+            return new CacheSVG(Math.max(memoria, 0) * (1L << 20), directorioCache);
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("No se puede crear el caché: " + directorioCache);
+        }
+    }
+
+    /* Inicia el servidor; sus hilos mantienen viva la aplicación. */
+    private boolean ejecutaServidor() {
+        try {
+            Servidor servidor = new Servidor(puerto, hilos, creaCache(memoriaCache), layout);
+            servidor.inicia();
+            System.out.println("Servidor escuchando en http://localhost:" + servidor.getPuerto() + "/");
+            return true;
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("No se puede abrir el puerto: " + puerto);
+        }
+    }
+
+    /* Grafica todos los archivos del lote. */
+    private boolean ejecutaLote() {
+        try {
+            return new Lote(lote, archivoSalida, hilos, creaCache(memoriaCache), layout).ejecuta(System.out) == 0;
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("No se puede leer el lote: " + lote);
+        }
+    }
+
+    /**
+     * Regresa el graficador correspondiente a la estructura recibida.
+     * 
+     * @param estructura La estructura a graficar.
+     * @param elementos  Los elementos de la estructura.
+     * @param layout     La disposición de los árboles.
+     * @return el graficador de la estructura, o <code>null</code> si la
+     *         estructura no es válida.
+     */
+    public static StructGrapher getGrapher(Estructuras estructura, IntLista elementos, TreeLayout layout) {
         switch (estructura) {
             case LISTA :
-                Lines type = Lines.BOTH;
-                ListGrapher<Integer> listGrapher = new ListGrapher<>(elementos, type);                
-                System.out.println(listGrapher.graph());
-                break;
+                return new ListGrapher<>(elementos, Lines.BOTH);
             case COLA :
-                QueueGrapher<Integer> queueGrapher = new QueueGrapher<>(elementos);                
-                System.out.println(queueGrapher.graph());
-                break;
+                return new QueueGrapher<>(elementos);
             case PILA :
-                StackGrapher<Integer> stackGrapher = new StackGrapher<>(elementos.reversa());                
-                System.out.println(stackGrapher.graph());
-                break;
+                return new StackGrapher<>(elementos.reversa());
             case ARBOL_BINARIO_COMPLETO :
-                TreeGrapher<Integer> treeGrapher = new TreeGrapher<>(new ArbolBinarioCompleto<>(elementos));                
-                System.out.println(treeGrapher.graph());
-                break;
+                return new TreeGrapher<>(new ArbolBinarioCompleto<>(elementos), layout);
             case ARBOL_BINARIO_ORDENADO :
-                TreeGrapher<Integer> treeOGrapher = new TreeGrapher<>(new ArbolBinarioOrdenado<>(elementos));                
-                System.out.println(treeOGrapher.graph());
-                break;
+                return new TreeGrapher<>(new ArbolBinarioOrdenado<>(elementos), layout);
             case ARBOL_ROJINEGRO :
-                TreeRedBlackGrapher<Integer> treeRGrapher = new TreeRedBlackGrapher<>(new ArbolRojinegro<>(elementos));                
-                System.out.println(treeRGrapher.graph());
-                break;
+                return new TreeRedBlackGrapher<>(new ArbolRojinegro<>(elementos), layout);
             case ARBOL_AVL :
-                TreeAVLGrapher<Integer> treeAGrapher = new TreeAVLGrapher<>(new ArbolAVL<>(elementos));                
-                System.out.println(treeAGrapher.graph());
-                break;
+                return new TreeAVLGrapher<>(new ArbolAVL<>(elementos), layout);
             case GRAFICA :
-                GraphGrapher<Integer> Grapher = new GraphGrapher<>(elementos);                
-                System.out.println(Grapher.graph());
-                break;
+                return new GraphGrapher<>(elementos);
             case MONTICULO_MINIMO :
-                MinHeapGrapher<Integer> MinGrapher = new MinHeapGrapher<>(elementos);                
-                System.out.println(MinGrapher.graph());
-                break;
+                return new MinHeapGrapher<>(elementos, layout);
             default:
-                System.out.println("Estructura no válida");
-                break;
+                return null;
         }
     }
 
     /**
-     * Método para guardar un string SVG en un archivo.
+     * Método para escribir el SVG en la salida estándar.
      * 
-     * @param svgString     El string SVG a guardar.
+     * @param grapher El graficador que escribe el SVG.
+     */
+    private void imprimeSVG(StructGrapher grapher) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(System.out));
+            grapher.graph(writer);
+            writer.write(System.lineSeparator());
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error al escribir en la salida estándar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Método para guardar el SVG en un archivo.
+     * 
+     * @param grapher       El graficador que escribe el SVG.
      * @param nombreArchivo El nombre del archivo donde se guardará el SVG.
      */
-    private void guardarSVGEnArchivo(String svgString, String nombreArchivo) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(nombreArchivo))) {
-            writer.write(svgString);
+    private void guardarSVGEnArchivo(StructGrapher grapher, String nombreArchivo) {
+        try {
+            escribeSVG(grapher, nombreArchivo);
             System.out.println("Se ha guardado el gráfico SVG en el archivo: " + nombreArchivo);
         } catch (IOException e) {
             System.err.println("Error al escribir en el archivo: " + e.getMessage());
         }
     }
 
+    /**
+     * Escribe el SVG del graficador en un archivo.
+     * 
+     * @param grapher       El graficador que escribe el SVG.
+     * @param nombreArchivo El nombre del archivo donde se escribe el SVG.
+     * @throws IOException si ocurre un error al escribir en el archivo.
+     */
+    public static void escribeSVG(StructGrapher grapher, String nombreArchivo) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(nombreArchivo))) {
+            grapher.graph(writer);
+        }
+    }
+
 
 }
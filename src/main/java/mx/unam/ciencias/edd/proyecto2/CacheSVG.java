@@ -0,0 +1,266 @@
+package mx.unam.ciencias.edd.proyecto2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import mx.unam.ciencias.edd.*;
+
+/**
+ * Caché de gráficas SVG. Cada gráfica se guarda con la huella SHA-256 de su
+ * estructura y sus elementos como llave, así que la misma entrada nunca se
+ * vuelve a construir ni a graficar mientras siga en el caché.
+ *
+ * Las gráficas se guardan en memoria hasta un presupuesto de bytes, sacando
+ * la usada hace más tiempo cuando se rebasa; opcionalmente también se guardan
+ * en un directorio, donde sobreviven entre ejecuciones. El disco es sólo una
+ * ayuda: si no se puede leer o escribir, el error se cuenta y la gráfica se
+ * regresa de todas formas.
+ */
+public class CacheSVG {
+
+    /* Versión del formato de las gráficas; cambia la llave de todas. */
+    private static final String VERSION = "1";
+
+    /* Las gráficas en memoria, de la usada hace más tiempo a la más reciente. */
+    private LinkedHashMap<String, byte[]> memoria;
+    /* El presupuesto de bytes en memoria. */
+    private long presupuesto;
+    /* Los bytes usados en memoria. */
+    private long bytes;
+    /* El directorio del caché en disco; null si no hay. */
+    private File directorio;
+    /* Número de aciertos en memoria. */
+    private AtomicLong aciertosMemoria;
+    /* Número de aciertos en disco. */
+    private AtomicLong aciertosDisco;
+    /* Número de fallos. */
+    private AtomicLong fallos;
+    /* Número de errores de lectura o escritura en disco. */
+    private AtomicLong erroresDisco;
+
+    /**
+     * Construye un caché.
+     * @param presupuesto el número máximo de bytes de gráficas en memoria.
+     * @param directorio el directorio del caché en disco, o <code>null</code>
+     *        para no guardar en disco.
+     * @throws IOException si no se puede crear el directorio.
+     * @throws IllegalArgumentException si el presupuesto es negativo.
+     */
+    public CacheSVG(long presupuesto, String directorio) throws IOException {
+        if (presupuesto < 0) throw new IllegalArgumentException("El presupuesto es negativo.");
+        this.presupuesto = presupuesto;
+        this.memoria = new LinkedHashMap<>(16, 0.75f, true);
+        this.aciertosMemoria = new AtomicLong();
+        this.aciertosDisco = new AtomicLong();
+        this.fallos = new AtomicLong();
+        this.erroresDisco = new AtomicLong();
+
+        if (directorio != null) {
+            this.directorio = new File(directorio);
+            Files.createDirectories(this.directorio.toPath());
+        }
+    }
+
+    /**
+     * Regresa la gráfica SVG de la estructura con los elementos recibidos, en
+     * UTF-8. Si está en el caché no se construye la estructura.
+     * @param estructura la estructura.
+     * @param elementos los elementos de la estructura.
+     * @param layout la disposición de los árboles.
+     * @return la gráfica SVG, o <code>null</code> si la estructura no es
+     *         válida.
+     * @throws IOException si ocurre un error al graficar.
+     */
+    public byte[] grafica(Estructuras estructura, IntLista elementos, TreeLayout layout) throws IOException {
+        if (estructura == Estructuras.INVALIDO) return null;
+
+        String llave = llave(estructura, elementos, layout);
+        byte[] svg = buscaMemoria(llave);
+        if (svg != null) {
+            aciertosMemoria.incrementAndGet();
+            return svg;
+        }
+
+        svg = buscaDisco(llave);
+        if (svg != null) {
+            aciertosDisco.incrementAndGet();
+            guardaMemoria(llave, svg);
+            return svg;
+        }
+
+        fallos.incrementAndGet();
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(salida, StandardCharsets.UTF_8)) {
+            Aplicacion.getGrapher(estructura, elementos, layout).graph(writer);
+        }
+        svg = salida.toByteArray();
+
+        guardaMemoria(llave, svg);
+        guardaDisco(llave, svg);
+        return svg;
+    }
+
+    /**
+     * Regresa el número de aciertos en memoria.
+     * @return el número de aciertos en memoria.
+     */
+    public long getAciertosMemoria() {
+        return aciertosMemoria.get();
+    }
+
+    /**
+     * Regresa el número de aciertos en disco.
+     * @return el número de aciertos en disco.
+     */
+    public long getAciertosDisco() {
+        return aciertosDisco.get();
+    }
+
+    /**
+     * Regresa el número de fallos.
+     * @return el número de fallos.
+     */
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    /**
+     * Regresa el número de errores de lectura o escritura en disco.
+     * @return el número de errores de lectura o escritura en disco.
+     */
+    public long getErroresDisco() {
+        return erroresDisco.get();
+    }
+
+    /**
+     * Regresa el número de bytes de gráficas en memoria.
+     * @return el número de bytes de gráficas en memoria.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Regresa una representación en cadena de los contadores del caché.
+     * @return una representación en cadena de los contadores del caché.
+     */
+    @Override public String toString() {
+        return String.format("aciertos en memoria: %d, aciertos en disco: %d, fallos: %d, " +
+                             "errores en disco: %d, bytes en memoria: %d",
+                             getAciertosMemoria(), getAciertosDisco(), getFallos(),
+                             getErroresDisco(), getBytes());
+    }
+
+    /* Busca la gráfica en memoria y la marca como la más reciente. */
+    private synchronized byte[] buscaMemoria(String llave) {
+        return memoria.get(llave);
+    }
+
+    /* Guarda la gráfica en memoria, sacando las usadas hace más tiempo hasta
+       respetar el presupuesto. */
+    private synchronized void guardaMemoria(String llave, byte[] svg) {
+        if (svg.length > presupuesto) return;
+
+        byte[] anterior = memoria.put(llave, svg);
+        if (anterior != null) bytes -= anterior.length;
+        bytes += svg.length;
+
+        Iterator<byte[]> viejas = memoria.values().iterator();
+        while (bytes > presupuesto) {
+            bytes -= viejas.next().length;
+            viejas.remove();
+        }
+    }
+
+    /* Busca la gráfica en disco; si no se puede leer cuenta como fallo. */
+    private byte[] buscaDisco(String llave) {
+        if (directorio == null) return null;
+
+        Path archivo = new File(directorio, llave + ".svg").toPath();
+        if (!Files.isRegularFile(archivo)) return null;
+        try {
+            return Files.readAllBytes(archivo);
+        } catch (IOException ioe) {
+            erroresDisco.incrementAndGet();
+            return null;
+        }
+    }
+
+    /* Guarda la gráfica en disco; se escribe en un temporal y se mueve para
+       que nadie lea una gráfica a medias. Si no se puede, sólo se cuenta el
+       error: la gráfica ya está en memoria. */
+    private void guardaDisco(String llave, byte[] svg) {
+        if (directorio == null) return;
+
+        Path temporal = null;
+        try {
+            temporal = Files.createTempFile(directorio.toPath(), llave, ".tmp");
+            Files.write(temporal, svg);
+            Files.move(temporal, new File(directorio, llave + ".svg").toPath(),
+                       StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ioe) {
+            erroresDisco.incrementAndGet();
+        } finally {
+            borra(temporal);
+        }
+    }
+
+    /* Borra el temporal si quedó en disco. */
+    private void borra(Path temporal) {
+        if (temporal == null) return;
+        try {
+            Files.deleteIfExists(temporal);
+        } catch (IOException ioe) {
+            erroresDisco.incrementAndGet();
+        }
+    }
+
+    /* Regresa la huella de la estructura y sus elementos, en hexadecimal. La
+       disposición sólo es parte de la llave para los árboles. */
+    private static String llave(Estructuras estructura, IntLista elementos, TreeLayout layout) {
+        MessageDigest huella;
+        try {
+            huella = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException nsae) {
+            /* Toda JVM tiene SHA-256. */
+            throw new IllegalStateException(nsae);
+        }
+
+        String prefijo = VERSION + ":" + estructura.name() + ":";
+        if (estructura.esArbol()) prefijo += layout.name() + ":";
+        huella.update(prefijo.getBytes(StandardCharsets.UTF_8));
+
+        byte[] bloque = new byte[4096];
+        int n = 0;
+        PrimitiveIterator.OfInt iterador = elementos.iterator();
+        while (iterador.hasNext()) {
+            int e = iterador.nextInt();
+            bloque[n++] = (byte)(e >>> 24);
+            bloque[n++] = (byte)(e >>> 16);
+            bloque[n++] = (byte)(e >>> 8);
+            bloque[n++] = (byte)e;
+            if (n == bloque.length) {
+                huella.update(bloque, 0, n);
+                n = 0;
+            }
+        }
+        huella.update(bloque, 0, n);
+
+        StringBuilder hexadecimal = new StringBuilder();
+        for (byte b : huella.digest()) hexadecimal.append(String.format("%02x", b));
+        return hexadecimal.toString();
+    }
+}
@@ -1,16 +1,22 @@
 package mx.unam.ciencias.edd.proyecto2;
 import mx.unam.ciencias.edd.*;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.io.FileInputStream; 
+import java.nio.charset.StandardCharsets;
 
 /**
- * La clase Entrada se encarga de gestionar la entrada de datos.
+ * La clase Entrada se encarga de gestionar la entrada de datos. Si la entrada
+ * no se puede leer o no es válida, sus métodos lanzan {@link
+ * ExcepcionEntrada}.
  */
 public class Entrada {
+
+    /* Tamaño a partir del cual un archivo se lee mapeado y en paralelo. */
+    private static final long UMBRAL_MAPEO = 1 << 26;
     
     /*Argumentos de línea de comandos*/
     private String[] args;
@@ -19,99 +25,99 @@ public class Entrada {
 
     private String estructura = "ESTRUCTURA";
     
-    private Lista<Integer> elementos;
+    private IntLista elementos;
 
     public Entrada(String[] args){
         this.args = args;
-        this.elementos = new Lista<>();
+        this.elementos = new IntLista();
     }
 
     public String getEstructura(){
         return estructura;
     }
 
-    public Lista<Integer> getElementos(){
+    public IntLista getElementos(){
         return elementos;
     }
 
     public void estandar() {
-        Lista<String> lista = new Lista<>();
+        try {
+            procesarEntrada(System.in);
+        } catch (IOException ioe){
+            throw new ExcepcionEntrada("Falló la lectura de la entrada estandar");
+        }
+    }
 
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(System.in))) {
-            String linea;
-            while ((linea = br.readLine()) != null) lista.agrega(linea);
+    /**
+     * Lee la entrada del flujo recibido, con el mismo formato que la entrada
+     * estándar. El flujo no se cierra.
+     * @param entrada el flujo de entrada.
+     * @throws ExcepcionEntrada si el flujo no se puede leer o la entrada no es
+     *         válida.
+     */
+    public void lee(InputStream entrada) {
+        try {
+            procesarEntrada(entrada);
         } catch (IOException ioe){
-            System.out.println("Falló la lectura de la entrada estandar");
-            System.out.println("Terminando el programa debido a un error crítico.");
-            System.exit(1);
-	    }
-        procesarEntrada(lista);
+            throw new ExcepcionEntrada("Falló la lectura de la entrada");
+        }
     }
 
     public void entParametros(){
         if(args.length == 1){
-            procesarEntrada(abrirArchivo(args[0]));
+            abrirArchivo(args[0]);
             return;
         }
 
-        Lista<String> lista = new Lista<>();
-        for(int i = 0; i < args.length; i++){
-            lista.agrega(args[i]);
+        /* Cada argumento cuenta como una línea de la entrada. */
+        byte[] lineas = String.join("\n", args).getBytes(StandardCharsets.UTF_8);
+        try {
+            procesarEntrada(new ByteArrayInputStream(lineas));
+        } catch (IOException ioe) {
+            /* No ocurre con un flujo en memoria. */
+            throw new IllegalStateException(ioe);
         }
-        procesarEntrada(lista);
     }
 
-    private void procesarEntrada(Lista<String> lista) {
-        Lista<String> nueva = new Lista<>(); 
+    private void procesarEntrada(InputStream entrada) throws IOException {
+        Tokenizador tokenizador = new Tokenizador(entrada);
+        String palabra = tokenizador.siguientePalabra();
     
-        for (String linea : lista) {
-            String[] palabras = linea.trim().split("\\s+"); 
+        if (palabra == null)
+            throw new ExcepcionEntrada("Error: La lista procesada está vacía.");
     
-            for (String palabra : palabras) {
-                if (!palabra.isEmpty()) {
-                    if (palabra.startsWith("#")) {
-                        break; 
-                    }
-                    nueva.agrega(palabra);
-                }
-            }
-        }
+        estructura = palabra;
     
-        if (nueva.esVacia()) {
-            System.out.println("Error: La lista procesada está vacía.");
-            System.out.println("Terminando el programa debido a un error crítico.");
-            System.exit(1);
-        }
-    
-        estructura = nueva.eliminaPrimero();
-    
-        for (String numero : nueva) {
-            try {
-                int numEntero = Integer.parseInt(numero);
-                elementos.agrega(numEntero);
-            } catch (NumberFormatException e) {
-                System.out.println("Error al convertir a entero: " + numero);
-                System.out.println("Terminando el programa debido a un error crítico.");
-                System.exit(1); 
-            }
+        try {
+            while (tokenizador.siguienteEntero()) elementos.agrega(tokenizador.getEntero());
+        } catch (NumberFormatException e) {
+            throw new ExcepcionEntrada("Error al convertir a entero: " + e.getMessage());
         }
     }
-    
 
-    private Lista<String> abrirArchivo(String archivo){
-        Lista<String> lista = new Lista<>();
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(archivo)))){		
-            String linea = br.readLine();
-            while (linea != null){
-                lista.agregaFinal(linea);
-                linea = br.readLine();
-            }
-            br.close();
+    private void abrirArchivo(String archivo){
+        if (new File(archivo).length() >= UMBRAL_MAPEO) {
+            abrirArchivoMapeado(archivo);
+            return;
+        }
+        try (InputStream entrada = new FileInputStream(archivo)){		
+            procesarEntrada(entrada);
         }catch (IOException ioe){
-            System.out.println("No se encuentra el archivo: " + archivo);
-            System.out.println("Terminando el programa debido a un error crítico.");
-            System.exit(1);
+            throw new ExcepcionEntrada("No se encuentra el archivo: " + archivo);
+        }
+    }
+
+    private void abrirArchivoMapeado(String archivo){
+        try {
+            LectorMapeado lector = new LectorMapeado(archivo);
+            if (lector.getEstructura() == null)
+                throw new ExcepcionEntrada("Error: La lista procesada está vacía.");
+            estructura = lector.getEstructura();
+            elementos = lector.getElementos();
+        } catch (NumberFormatException e) {
+            throw new ExcepcionEntrada("Error al convertir a entero: " + e.getMessage());
+        } catch (IOException ioe) {
+            throw new ExcepcionEntrada("No se pudo leer el archivo: " + archivo);
         }
-        return lista;
     }
 }
\ No newline at end of file
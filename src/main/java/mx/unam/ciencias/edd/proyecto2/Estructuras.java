@@ -12,6 +12,25 @@ public enum Estructuras {
     MONTICULO_MINIMO,
     INVALIDO;
 
+    /**
+     * Nos dice si la estructura se grafica como árbol, y por lo tanto
+     * depende de la disposición de los árboles.
+     * @return <code>true</code> si la estructura se grafica como árbol,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esArbol() {
+        switch (this) {
+            case ARBOL_BINARIO_COMPLETO:
+            case ARBOL_BINARIO_ORDENADO:
+            case ARBOL_ROJINEGRO:
+            case ARBOL_AVL:
+            case MONTICULO_MINIMO:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     public static Estructuras getEstructura(String estructura) {
         switch (estructura.toLowerCase()) {
             case "lista":
@@ -0,0 +1,15 @@
+package mx.unam.ciencias.edd.proyecto2;
+
+/**
+ * Clase para excepciones de entradas que no se pueden leer o no son válidas.
+ */
+public class ExcepcionEntrada extends RuntimeException {
+
+    /**
+     * Constructor que recibe un mensaje para el usuario.
+     * @param mensaje un mensaje que verá el usuario cuando ocurra la excepción.
+     */
+    public ExcepcionEntrada(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -1,8 +1,12 @@
 package mx.unam.ciencias.edd.proyecto2;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+
 import mx.unam.ciencias.edd.*;
 
-public class GraphGrapher<T> {
+public class GraphGrapher<T> implements StructGrapher {
 
 
     private class Coordenada {
@@ -21,58 +25,58 @@ public class GraphGrapher<T> {
 
     private Grafica<T> grafica;
 
-    private Lista<Coordenada> verticesGraficados = new Lista<>();
-
     GraphicSVG grapher = new GraphicSVG();
 
-    public GraphGrapher(Lista<T> grafica) {
+    public GraphGrapher(Coleccion<T> grafica) {
         this.grafica = build(grafica);
     }
 
-    public String graph() {
+    @Override public void graph(Writer salida) throws IOException {
     
         double angulo = 360 / grafica.getElementos();
         double anguloAcumulado = 0;
         int index = 0;
-        int radio = (int) Math.round(radioTotal + 50);
         double radioTotal = Math.abs(120 / (2 * Math.sin(Math.toRadians(angulo / 2))));
+        int radio = (int) Math.round(radioTotal + 50);
 
-        Lista<VerticeGrafica<T>> vertices = new Lista<>();
-        grafica.paraCadaVertice((vertice) -> vertices.agrega(vertice));
-
-        StringBuilder edges = new StringBuilder();
-        StringBuilder puntos = new StringBuilder();
-
-        for (VerticeGrafica<T> vertice : vertices) {
+        GraficaCSR<T> csr = grafica.snapshot();
+        Coordenada[] coordenadas = nuevoArreglo(csr.getElementos());
 
+        for (int i = 0; i < csr.getElementos(); i++) {
             int punto1 = (int) Math.round(radioTotal * Math.cos(Math.toRadians(anguloAcumulado))) + radio;
             int punto2 = (int) Math.round(radioTotal * Math.sin(Math.toRadians(anguloAcumulado))) + radio;
 
-            puntos.append(grapher.circle(punto1, punto2, "white", vertice.get().toString(), 40));
-            Coordenada coord = new Coordenada(punto1, punto2, index++, vertice.get());
+            coordenadas[i] = new Coordenada(punto1, punto2, index++, csr.get(i));
+            anguloAcumulado += angulo;
+        }
 
-            for (VerticeGrafica<T> neighbor : vertice.vecinos()) {
-                Coordenada coordenadaV = getCoordenada(neighbor, verticesGraficados);
-                if (coordenadaV != null) edges.append(edgesGrapher(coord, coordenadaV, radio));
-            }
+        grapher.initializeSVG(salida, radio * 2, radio * 2);
 
-            verticesGraficados.agrega(coord);
-            anguloAcumulado += angulo;
+        /* Las aristas van primero para que los vértices queden encima. */
+        for (Coordenada coord : coordenadas) {
+            for (int k = 0; k < csr.getGrado(coord.index); k++) {
+                int vecino = csr.getVecino(coord.index, k);
+                if (vecino < coord.index) edgesGrapher(salida, coord, coordenadas[vecino], radio);
+            }
         }
 
-        return grapher.initializeSVG(radio * 2, radio * 2) + edges.toString() + puntos.toString() + grapher.finishSVG();
+        for (Coordenada coord : coordenadas)
+            grapher.circle(salida, coord.x, coord.y, "white", coord.elemento.toString(), 40);
+
+        grapher.finishSVG(salida);
     }
 
-    private <T> Grafica<T> build(Lista<T> lista){
+    private <T> Grafica<T> build(Coleccion<T> lista){
         if (lista.getElementos() % 2 != 0) throw new IllegalArgumentException("Los elementos deben ser pares para construir una gráfica.");
     
         Grafica<T> grafica = new Grafica<>();
     
         for (T vertex : lista) if (!grafica.contiene(vertex)) grafica.agrega(vertex);
     
-        for (int i = 0; i < lista.getElementos(); i += 2) {
-            T p1 = lista.get(i);
-            T p2 = lista.get(i + 1);
+        Iterator<T> pares = lista.iterator();
+        while (pares.hasNext()) {
+            T p1 = pares.next();
+            T p2 = pares.next();
     
             if (p1.equals(p2)) continue;
             if(!grafica.sonVecinos(p1, p2)) grafica.conecta(p1, p2);
@@ -81,14 +85,13 @@ public class GraphGrapher<T> {
         return grafica;
     }
 
-    private String edgesGrapher(Coordenada p1, Coordenada p2, int radio) {
-        if (Math.abs(p1.index - p2.index) == 1) return grapher.line(p1.x, p1.y, p2.x, p2.y, Lines.NEITHER);
-        return grapher.curva(p1.x, p1.y, p2.x - p1.x, p2.y - p1.y, radio - p1.x, radio - p1.y);
+    @SuppressWarnings("unchecked") private Coordenada[] nuevoArreglo(int n) {
+        return (Coordenada[]) new GraphGrapher.Coordenada[n];
     }
-      
-    private Coordenada getCoordenada(VerticeGrafica<T> vertice, Lista<Coordenada> coordenadas) {
-        for (Coordenada coordenada : coordenadas) if (coordenada.elemento.equals(vertice.get())) return coordenada;
-        return null;
+
+    private void edgesGrapher(Writer salida, Coordenada p1, Coordenada p2, int radio) throws IOException {
+        if (Math.abs(p1.index - p2.index) == 1) grapher.line(salida, p1.x, p1.y, p2.x, p2.y, Lines.NEITHER);
+        else grapher.curva(salida, p1.x, p1.y, p2.x - p1.x, p2.y - p1.y, radio - p1.x, radio - p1.y);
     }
     
 }
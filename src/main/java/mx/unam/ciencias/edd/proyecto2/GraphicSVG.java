@@ -1,49 +1,98 @@
 package mx.unam.ciencias.edd.proyecto2;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import mx.unam.ciencias.edd.proyecto2.Lines;
 
 public class GraphicSVG {
 
-    public String initializeSVG (int x, int y){
-        return String.format("<?xml version='1.0' encoding='UTF-8' ?><svg width='%d' height='%d'><g>", x, y);
+    /* Codificador reutilizable para todas las primitivas; uno por hilo, para
+       que varios hilos puedan graficar con la misma instancia. */
+    private ThreadLocal<SVGEncoder> codificador = ThreadLocal.withInitial(SVGEncoder::new);
+
+    public void initializeSVG (Writer salida, int x, int y) throws IOException {
+        SVGEncoder svg = codificador.get();
+        svg.append("<?xml version='1.0' encoding='UTF-8' ?><svg width='").append(x)
+           .append("' height='").append(y).append("'><g>");
+        svg.escribe(salida);
+    }
+
+    public void rectangle (Writer salida, int x, int y, String text) throws IOException {
+        SVGEncoder svg = codificador.get();
+        svg.append("<rect width='80' height='40' x=\"").append(x)
+           .append("\" y=\"").append(y).append("\" stroke='black' fill='white' />");
+        text(svg, 40 + x, 29 + y, text, "black", 25);
+        svg.escribe(salida);
+    }
+
+    public void line(Writer salida, int x1, int y1, int x2, int y2, Lines type) throws IOException {
+        SVGEncoder svg = codificador.get();
+        svg.append("<path d=\"M").append(x1).append(',').append(y1)
+           .append(" L").append(x2).append(',').append(y2)
+           .append("\" stroke=\"black\" stroke-width=\"3\"/>");
+
+        if(type == Lines.BOTH) {
+            startArrow(svg, x1, y1);
+            endArrow(svg, x2, y2);
+        } else if(type == Lines.RIGHT) endArrow(svg, x2, y2);
+        else if(type == Lines.LEFT) {
+            endArrow(svg, x2, y2);
+            startArrow(svg, x1, y1);
+        }
+        svg.escribe(salida);
     }
 
-    public String rectangle (int x, int y, String text) {
-        String rect = String.format("<rect width='80' height='40' x=\"%d\" y=\"%d\" stroke='black' fill='white' />", x, y);
-        rect += text(40 + x, 29 + y, text, "black", 25);
-        return rect;
+    private void startArrow(SVGEncoder svg, int x1, int y1) {
+        polygon(svg, x1 - 5, y1, x1, y1 - 5, x1, y1 + 5);
     }
 
-    public String line(int x1, int y1, int x2, int y2, Lines type){
-        String line = String.format("<path d=\"M%d,%d L%d,%d\" stroke=\"black\" stroke-width=\"3\"/>", x1, y1, x2, y2);
-        String startArrow = String.format("<polygon points=\"%d,%d %d,%d %d,%d\" fill=\"black\"/>", x1 - 5, y1, x1, y1 - 5, x1, y1 + 5);
-        String endArrow = String.format("<polygon points=\"%d,%d %d,%d %d,%d\" fill=\"black\"/>", x2, y2 - 5, x2, y2 + 5, x2 + 5, y2);
+    private void endArrow(SVGEncoder svg, int x2, int y2) {
+        polygon(svg, x2, y2 - 5, x2, y2 + 5, x2 + 5, y2);
+    }
 
-        if(type == Lines.NEITHER) return line;
-        if(type == Lines.BOTH) return line + startArrow + endArrow;
-        if(type == Lines.RIGHT) return line + endArrow;
-        return line + endArrow + startArrow;
+    private void polygon(SVGEncoder svg, int ax, int ay, int bx, int by, int cx, int cy) {
+        svg.append("<polygon points=\"").append(ax).append(',').append(ay)
+           .append(' ').append(bx).append(',').append(by)
+           .append(' ').append(cx).append(',').append(cy)
+           .append("\" fill=\"black\"/>");
     }
 
-    public String circle(int cx, int cy, String color, String text, int r) {
-        String colorLetter = color == "white" ? "black" : "white";
-        String circleSVG = String.format("<circle cx='%d' cy='%d' r='%d' stroke='black' stroke-width='3' fill='%s' />", cx, cy,r, color);
-        return circleSVG + text(cx, cy + 8, text, colorLetter, 32);
+    public void circle(Writer salida, int cx, int cy, String color, String text, int r) throws IOException {
+        SVGEncoder svg = codificador.get();
+        String colorLetter = "white".equals(color) ? "black" : "white";
+        svg.append("<circle cx='").append(cx).append("' cy='").append(cy)
+           .append("' r='").append(r).append("' stroke='black' stroke-width='3' fill='")
+           .append(color).append("' />");
+        text(svg, cx, cy + 8, text, colorLetter, 32);
+        svg.escribe(salida);
     }
     
 
-    public String text(int x, int y, String text, String color, int tamanoFuente) {
-        return String.format("<text x='%d' y='%d' text-anchor='middle'" +
-                " font-family='sans-serif' font-size='%d' fill='%s'>%s</text>",
-                x, y, tamanoFuente, color, text);
+    public void text(Writer salida, int x, int y, String text, String color, int tamanoFuente) throws IOException {
+        SVGEncoder svg = codificador.get();
+        text(svg, x, y, text, color, tamanoFuente);
+        svg.escribe(salida);
+    }
+
+    private void text(SVGEncoder svg, int x, int y, String text, String color, int tamanoFuente) {
+        svg.append("<text x='").append(x).append("' y='").append(y)
+           .append("' text-anchor='middle' font-family='sans-serif' font-size='")
+           .append(tamanoFuente).append("' fill='").append(color).append("'>")
+           .append(text).append("</text>");
     }
 
-    public String finishSVG () {
-        return "</g></svg>";
+    public void finishSVG (Writer salida) throws IOException {
+        salida.write("</g></svg>");
     }
 
-    public static String curva(int x1, int y1, int x2, int y2, int x3, int y3) {
-        return String.format("<path d='M %d %d q %d %d %d %d' stroke='black'"+ " stroke-width='3' fill='none' />", x1, y1, x3, y3, x2, y2);
+    public void curva(Writer salida, int x1, int y1, int x2, int y2, int x3, int y3) throws IOException {
+        SVGEncoder svg = codificador.get();
+        svg.append("<path d='M ").append(x1).append(' ').append(y1)
+           .append(" q ").append(x3).append(' ').append(y3)
+           .append(' ').append(x2).append(' ').append(y2)
+           .append("' stroke='black' stroke-width='3' fill='none' />");
+        svg.escribe(salida);
     }
     
-}
\ No newline at end of file
+}
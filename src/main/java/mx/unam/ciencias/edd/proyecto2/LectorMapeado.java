@@ -0,0 +1,224 @@
+package mx.unam.ciencias.edd.proyecto2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import mx.unam.ciencias.edd.*;
+
+/**
+ * Lector de archivos grandes. Mapea el archivo a memoria, lo parte en trozos
+ * que terminan en un espacio en blanco y convierte cada trozo a enteros en un
+ * <em>fork-join pool</em>. Los enteros se juntan en el orden del archivo.
+ *
+ * Un trozo puede empezar dentro de un comentario que abrió un trozo anterior,
+ * lo que no se sabe hasta juntarlos. Por eso cada trozo convierte aparte lo
+ * que está antes de su primer salto de línea y reporta si termina dentro de un
+ * comentario; al juntar los trozos en orden, el prefijo de un trozo se
+ * descarta si el anterior dejó un comentario abierto.
+ */
+public class LectorMapeado {
+
+    /* Clase interna privada para convertir un trozo del archivo. */
+    private class Trozo extends RecursiveAction {
+
+        /* Inicio del trozo en el archivo. */
+        private long inicio;
+        /* Fin del trozo en el archivo. */
+        private long fin;
+        /* Los enteros antes del primer salto de línea del trozo. */
+        private IntLista prefijo;
+        /* Los enteros desde el primer salto de línea del trozo. */
+        private IntLista enteros;
+        /* El error antes del primer salto de línea, si hubo alguno. */
+        private NumberFormatException errorPrefijo;
+        /* El error desde el primer salto de línea, si hubo alguno. */
+        private NumberFormatException error;
+        /* Si el trozo tiene algún salto de línea. */
+        private boolean saltoDeLinea;
+        /* Si el trozo termina dentro de un comentario que empezó en él. */
+        private boolean comentario;
+        /* El error de lectura del trozo, si hubo alguno. */
+        private IOException errorLectura;
+
+        /* Construye un trozo. */
+        private Trozo(long inicio, long fin) {
+            this.inicio = inicio;
+            this.fin = fin;
+            this.prefijo = new IntLista();
+            this.enteros = new IntLista();
+        }
+
+        /* Convierte el trozo a enteros: primero lo que está antes del primer
+           salto de línea y luego el resto, cada parte por su cuenta. */
+        @Override protected void compute() {
+            try {
+                MappedByteBuffer region = mapea(inicio, fin);
+                int salto = region.position();
+                while (salto < region.limit() && region.get(salto) != '\n' && region.get(salto) != '\r')
+                    salto++;
+                saltoDeLinea = salto < region.limit();
+
+                ByteBuffer primeraLinea = region.duplicate();
+                primeraLinea.limit(salto);
+                region.position(salto);
+
+                Tokenizador tokenizador = new Tokenizador(primeraLinea);
+                try {
+                    while (tokenizador.siguienteEntero()) prefijo.agrega(tokenizador.getEntero());
+                    comentario = tokenizador.terminaEnComentario();
+                } catch (NumberFormatException nfe) {
+                    errorPrefijo = nfe;
+                }
+                if (!saltoDeLinea) return;
+
+                tokenizador = new Tokenizador(region);
+                while (tokenizador.siguienteEntero()) enteros.agrega(tokenizador.getEntero());
+                comentario = tokenizador.terminaEnComentario();
+            } catch (NumberFormatException nfe) {
+                error = nfe;
+            } catch (IOException ioe) {
+                errorLectura = ioe;
+            }
+        }
+    }
+
+    /* Tamaño mínimo de un trozo. */
+    private static final long TROZO_MINIMO = 1 << 22;
+    /* Tamaño máximo de una región mapeada. */
+    private static final long MAPEO_MAXIMO = Integer.MAX_VALUE;
+    /* Tamaño de la ventana para buscar espacios. */
+    private static final int VENTANA = 1 << 16;
+
+    /* El canal del archivo. */
+    private FileChannel canal;
+    /* El tamaño del archivo. */
+    private long tamano;
+    /* El nombre de la estructura. */
+    private String estructura;
+    /* Los enteros del archivo. */
+    private IntLista elementos;
+
+    /**
+     * Lee el archivo recibido.
+     * @param archivo el nombre del archivo.
+     * @throws IOException si ocurre un error al leer el archivo.
+     * @throws NumberFormatException si alguna palabra después del nombre de la
+     *         estructura no es un entero; es la primera en el orden del
+     *         archivo y el mensaje de la excepción es la palabra.
+     */
+    public LectorMapeado(String archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(archivo), StandardOpenOption.READ)) {
+            this.canal = canal;
+            this.tamano = canal.size();
+            lee();
+        }
+    }
+
+    /**
+     * Regresa el nombre de la estructura.
+     * @return el nombre de la estructura, o <code>null</code> si el archivo no
+     *         tiene ninguna palabra.
+     */
+    public String getEstructura() {
+        return estructura;
+    }
+
+    /**
+     * Regresa los enteros del archivo, en el orden del archivo.
+     * @return los enteros del archivo.
+     */
+    public IntLista getElementos() {
+        return elementos;
+    }
+
+    /* Lee el nombre de la estructura y luego los trozos en paralelo. */
+    private void lee() throws IOException {
+        MappedByteBuffer primera = mapea(0, Math.min(tamano, MAPEO_MAXIMO));
+        estructura = new Tokenizador(primera).siguientePalabra();
+        elementos = new IntLista(0);
+        if (estructura == null) return;
+
+        Lista<Trozo> trozos = parte(primera.position());
+        Trozo[] tareas = new Trozo[trozos.getElementos()];
+        int i = 0;
+        for (Trozo trozo : trozos) tareas[i++] = trozo;
+
+        ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+                @Override protected void compute() {
+                    invokeAll(tareas);
+                }
+            });
+
+        /* Si el trozo anterior dejó un comentario abierto, el prefijo de
+           éste es parte del comentario. */
+        boolean comentario = false;
+        long total = 0;
+        for (Trozo trozo : trozos) {
+            if (trozo.errorLectura != null) throw trozo.errorLectura;
+            if (comentario) {
+                trozo.prefijo = new IntLista(0);
+                trozo.errorPrefijo = null;
+            }
+            if (trozo.errorPrefijo != null) throw trozo.errorPrefijo;
+            if (trozo.error != null) throw trozo.error;
+            total += trozo.prefijo.getElementos() + trozo.enteros.getElementos();
+            comentario = trozo.comentario || (comentario && !trozo.saltoDeLinea);
+        }
+        if (total > Integer.MAX_VALUE - 8)
+            throw new IOException("El archivo tiene demasiados elementos.");
+
+        elementos = new IntLista((int)total);
+        for (Trozo trozo : trozos) {
+            elementos.concatena(trozo.prefijo);
+            elementos.concatena(trozo.enteros);
+        }
+    }
+
+    /* Parte el archivo desde el inicio recibido en trozos que terminan en
+       un espacio en blanco, para que ninguna palabra quede partida. */
+    private Lista<Trozo> parte(long inicio) throws IOException {
+        int hilos = Runtime.getRuntime().availableProcessors();
+        long objetivo = Math.max(TROZO_MINIMO, (tamano - inicio) / (4 * hilos));
+        objetivo = Math.min(objetivo, MAPEO_MAXIMO / 2);
+
+        Lista<Trozo> trozos = new Lista<>();
+        while (inicio < tamano) {
+            long fin = inicio + objetivo;
+            if (fin >= tamano) fin = tamano;
+            else fin = espacio(fin, inicio + MAPEO_MAXIMO - VENTANA);
+            trozos.agrega(new Trozo(inicio, fin));
+            inicio = fin;
+        }
+        return trozos;
+    }
+
+    /* Regresa la posición justo después del primer espacio en blanco a
+       partir de la posición recibida, o el final del archivo si no hay
+       ninguno. Si la palabra no cabe en un solo mapeo, no hay forma segura de
+       partirla y se lanza una excepción. */
+    private long espacio(long desde, long limite) throws IOException {
+        while (desde < tamano) {
+            long hasta = Math.min(tamano, desde + VENTANA);
+            MappedByteBuffer ventana = mapea(desde, hasta);
+            for (long i = desde; i < hasta; i++) {
+                byte b = ventana.get();
+                if (Tokenizador.esEspacio(b)) return i + 1;
+            }
+            desde = hasta;
+            if (desde >= limite)
+                throw new IOException("Hay una palabra de más de " + MAPEO_MAXIMO + " bytes.");
+        }
+        return tamano;
+    }
+
+    /* Mapea la región del archivo entre las posiciones recibidas. */
+    private MappedByteBuffer mapea(long inicio, long fin) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_ONLY, inicio, fin - inicio);
+    }
+}
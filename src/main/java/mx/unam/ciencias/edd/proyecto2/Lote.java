@@ -0,0 +1,192 @@
+package mx.unam.ciencias.edd.proyecto2;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import mx.unam.ciencias.edd.*;
+
+/**
+ * Clase para graficar muchos archivos de entrada en una sola ejecución. Cada
+ * archivo pasa por {@link Entrada}, se construye su estructura y se escribe
+ * su SVG en un archivo propio; los archivos se reparten en un número acotado
+ * de hilos. Un archivo que falla no detiene a los demás: su error se reporta
+ * al final, en el orden de los archivos.
+ *
+ * El SVG de cada archivo se llama como el archivo sin su extensión. Si dos
+ * archivos tendrían el mismo SVG (como <code>a/x.txt</code> y
+ * <code>b/x.txt</code> con el mismo directorio de salida, o
+ * <code>x.txt</code> y <code>x.dat</code>), sólo se grafica el primero y los
+ * demás se reportan como fallas, en lugar de sobrescribirse entre sí.
+ */
+public class Lote {
+
+    /* Clase interna privada para graficar un archivo. */
+    private class Tarea implements Callable<String> {
+
+        /* El archivo de entrada. */
+        private String archivo;
+
+        /* Construye una tarea para el archivo recibido. */
+        private Tarea(String archivo) {
+            this.archivo = archivo;
+        }
+
+        /* Grafica el archivo; regresa null si todo salió bien, o el mensaje
+           de error. */
+        @Override public String call() {
+            try {
+                Entrada entrada = new Entrada(new String[] { archivo });
+                entrada.entParametros();
+
+                Estructuras estructura = Estructuras.getEstructura(entrada.getEstructura());
+                if (cache != null) {
+                    byte[] svg = cache.grafica(estructura, entrada.getElementos(), layout);
+                    if (svg == null) return "Estructura no válida";
+                    Files.write(Paths.get(salida(archivo)), svg);
+                    return null;
+                }
+
+                StructGrapher grapher = Aplicacion.getGrapher(estructura, entrada.getElementos(), layout);
+                if (grapher == null) return "Estructura no válida";
+
+                Aplicacion.escribeSVG(grapher, salida(archivo));
+                return null;
+            } catch (IOException ioe) {
+                return "Error al escribir el SVG: " + ioe.getMessage();
+            } catch (RuntimeException re) {
+                return re.getMessage() != null ? re.getMessage() : re.toString();
+            }
+        }
+    }
+
+    /* Los archivos de entrada. */
+    private Lista<String> archivos;
+    /* El directorio de salida; null para escribir junto a cada entrada. */
+    private String directorioSalida;
+    /* El número de hilos. */
+    private int hilos;
+    /* El caché de gráficas; null si no hay. */
+    private CacheSVG cache;
+    /* La disposición de los árboles. */
+    private TreeLayout layout;
+
+    /**
+     * Construye un lote a partir de un directorio o de un manifiesto. Si es
+     * un directorio, se grafican todos sus archivos en orden alfabético; si es
+     * un manifiesto, se grafica cada archivo listado en él, uno por línea. En
+     * el manifiesto se ignoran las líneas vacías y las que empiezan con
+     * <code>#</code>, y las rutas relativas son relativas al manifiesto.
+     * @param origen el directorio o manifiesto.
+     * @param directorioSalida el directorio donde se escriben los SVG, o
+     *        <code>null</code> para escribir cada SVG junto a su entrada.
+     * @param hilos el número de hilos a usar.
+     * @param cache el caché de gráficas, o <code>null</code> para graficar
+     *        cada archivo.
+     * @param layout la disposición de los árboles.
+     * @throws IOException si no se puede leer el directorio o manifiesto.
+     * @throws IllegalArgumentException si el número de hilos no es positivo.
+     */
+    public Lote(String origen, String directorioSalida, int hilos, CacheSVG cache, TreeLayout layout) throws IOException {
+        if (hilos < 1) throw new IllegalArgumentException("El número de hilos debe ser positivo.");
+        this.directorioSalida = directorioSalida;
+        this.hilos = hilos;
+        this.cache = cache;
+        this.layout = layout;
+
+        Path ruta = Paths.get(origen);
+        archivos = Files.isDirectory(ruta) ? leeDirectorio(ruta) : leeManifiesto(ruta);
+    }
+
+    /**
+     * Grafica todos los archivos del lote y reporta los errores en la salida
+     * recibida.
+     * @param reporte la salida donde se reportan los errores.
+     * @return el número de archivos que fallaron.
+     */
+    public int ejecuta(PrintStream reporte) {
+        if (directorioSalida != null) new File(directorioSalida).mkdirs();
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        Lista<Future<String>> resultados = new Lista<>();
+        HashMap<Path, String> destinos = new HashMap<>();
+        for (String archivo : archivos) {
+            Path destino = Paths.get(salida(archivo)).toAbsolutePath().normalize();
+            String anterior = destinos.putIfAbsent(destino, archivo);
+            if (anterior != null)
+                resultados.agrega(CompletableFuture.completedFuture("El SVG " + destino +
+                                                                    " sería el mismo que el de " + anterior));
+            else
+                resultados.agrega(ejecutor.submit(new Tarea(archivo)));
+        }
+
+        int fallas = 0;
+        IteradorLista<String> archivo = archivos.iteradorLista();
+        for (Future<String> resultado : resultados) {
+            String nombre = archivo.next();
+            String error;
+            try {
+                error = resultado.get();
+            } catch (InterruptedException | ExecutionException e) {
+                error = e.toString();
+            }
+            if (error != null) {
+                reporte.println(nombre + ": " + error);
+                fallas++;
+            }
+        }
+        ejecutor.shutdown();
+
+        reporte.println(String.format("Se graficaron %d de %d archivos.",
+                                      archivos.getElementos() - fallas,
+                                      archivos.getElementos()));
+        if (cache != null) reporte.println("Caché: " + cache);
+        return fallas;
+    }
+
+    /* Regresa el nombre del SVG para el archivo de entrada recibido. */
+    private String salida(String archivo) {
+        File entrada = new File(archivo);
+        String nombre = entrada.getName();
+        int punto = nombre.lastIndexOf('.');
+        if (punto > 0) nombre = nombre.substring(0, punto);
+
+        File directorio = directorioSalida != null ? new File(directorioSalida)
+                                                   : entrada.getParentFile();
+        return new File(directorio, nombre + ".svg").getPath();
+    }
+
+    /* Regresa los archivos del directorio, en orden alfabético. */
+    private static Lista<String> leeDirectorio(Path directorio) throws IOException {
+        Lista<String> lista = new Lista<>();
+        try (DirectoryStream<Path> contenido = Files.newDirectoryStream(directorio)) {
+            for (Path archivo : contenido)
+                if (Files.isRegularFile(archivo) && !archivo.toString().endsWith(".svg"))
+                    lista.agrega(archivo.toString());
+        }
+        return lista.mergeSort((a, b) -> a.compareTo(b));
+    }
+
+    /* Regresa los archivos listados en el manifiesto. */
+    private static Lista<String> leeManifiesto(Path manifiesto) throws IOException {
+        Path base = manifiesto.toAbsolutePath().getParent();
+        Lista<String> lista = new Lista<>();
+        for (String linea : Files.readAllLines(manifiesto)) {
+            linea = linea.trim();
+            if (linea.isEmpty() || linea.startsWith("#")) continue;
+            lista.agrega(base.resolve(linea).toString());
+        }
+        return lista;
+    }
+}
@@ -1,32 +1,42 @@
 package mx.unam.ciencias.edd.proyecto2;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import mx.unam.ciencias.edd.*;
 
 public class MinHeapGrapher<T extends Comparable<T>> extends TreeGrapher<T> {
 
     Lista<T> list;
 
-    public MinHeapGrapher(Lista<T> lista) {
-        super(new ArbolBinarioCompleto<T>(MonticuloMinimo.heapSort(lista)));
-        this.list = MonticuloMinimo.heapSort(lista);
-    } 
+    public MinHeapGrapher(Coleccion<T> lista) {
+        this(lista, TreeLayout.CLASSIC);
+    }
+
+    public MinHeapGrapher(Coleccion<T> lista, TreeLayout layout) {
+        this(MonticuloMinimo.heapSort(lista), layout);
+    }
 
-    public String graph(){
-        StringBuilder str = new StringBuilder();
+    private MinHeapGrapher(Lista<T> ordenada, TreeLayout layout) {
+        super(new ArbolBinarioCompleto<T>(ordenada), layout);
+        this.list = ordenada;
+    }
+
+    @Override public void graph(Writer salida) throws IOException {
         int x = 10, y = 10;
-        int elementos = 1;
-        
+        int ancho = x + 80 * list.getElementos() + 40;
+        int depth = dispone();
+        int ax = anchoArbol(depth), ay = 130;
+
+        grapher.initializeSVG(salida, ax > ancho ? ax:ancho, (80 * (depth + 1) + 40 * (depth) + 20) + 20);
 
         for(T element : list){
-            str.append(grapher.rectangle(x, y, element.toString()));
+            grapher.rectangle(salida, x, y, element.toString());
             x += 80;
         }
-        x+=40;
-        int depth = arbol.altura();
-        int ax = (80 * (1 << depth) + 20 * ((1 << depth) - 1) + 20), ay = 130;
-        str.append(treeGraph(ax, ay, depth));
+        treeGraph(salida, ax, ay, depth);
 
-        return grapher.initializeSVG(ax > x ? ax:x, (80 * (depth + 1) + 40 * (depth) + 20) + 20) + str.toString() + grapher.finishSVG();  
+        grapher.finishSVG(salida);
     }
     
 }
\ No newline at end of file
@@ -7,11 +7,19 @@ public class Proyecto2{
 
     /* Código de terminación por error de uso. */
     private static final int ERROR_USO = 1;
+    /* Código de terminación por error en la entrada. */
+    private static final int ERROR_ENTRADA = 1;
+    /* Código de terminación cuando falla algún archivo del lote. */
+    private static final int ERROR_LOTE = 2;
 
     public static void main(String[] args){
         try {
             Aplicacion aplicacion = new Aplicacion(args);
-            aplicacion.ejecuta();
+            if (!aplicacion.ejecuta()) System.exit(ERROR_LOTE);
+        }catch(ExcepcionEntrada ee){
+            System.out.println(ee.getMessage());
+            System.out.println("Terminando el programa debido a un error crítico.");
+            System.exit(ERROR_ENTRADA);
         }catch(IllegalArgumentException iae){
             System.out.println(iae.getMessage());
             System.exit(ERROR_USO);
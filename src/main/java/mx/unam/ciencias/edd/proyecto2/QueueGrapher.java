@@ -4,7 +4,7 @@ import mx.unam.ciencias.edd.*;
 
 public class QueueGrapher<T> extends ListGrapher<T> {
 
-    public QueueGrapher(Lista<T> list) {
+    public QueueGrapher(Coleccion<T> list) {
         super(list, Lines.RIGHT);
     }
 }
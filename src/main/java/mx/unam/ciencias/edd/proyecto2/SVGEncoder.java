@@ -0,0 +1,103 @@
+package mx.unam.ciencias.edd.proyecto2;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Codificador de primitivas SVG. Escribe fragmentos fijos y enteros en un
+ * arreglo de caracteres reutilizable y lo vacía en la salida al terminar cada
+ * primitiva, sin crear objetos por elemento.
+ */
+class SVGEncoder {
+
+    /* Capacidad inicial del arreglo. */
+    private static final int CAPACIDAD = 256;
+
+    /* El arreglo donde se codifica cada primitiva. */
+    private char[] buffer;
+    /* La siguiente posición libre del arreglo. */
+    private int posicion;
+
+    /**
+     * Constructor único.
+     */
+    public SVGEncoder() {
+        buffer = new char[CAPACIDAD];
+    }
+
+    /**
+     * Agrega una cadena al arreglo.
+     * @param cadena la cadena a agregar.
+     * @return el codificador, para encadenar llamadas.
+     */
+    public SVGEncoder append(String cadena) {
+        int longitud = cadena.length();
+        asegura(longitud);
+        cadena.getChars(0, longitud, buffer, posicion);
+        posicion += longitud;
+        return this;
+    }
+
+    /**
+     * Agrega un carácter al arreglo.
+     * @param c el carácter a agregar.
+     * @return el codificador, para encadenar llamadas.
+     */
+    public SVGEncoder append(char c) {
+        asegura(1);
+        buffer[posicion++] = c;
+        return this;
+    }
+
+    /**
+     * Agrega un entero en decimal al arreglo, igual que <code>%d</code>.
+     * @param n el entero a agregar.
+     * @return el codificador, para encadenar llamadas.
+     */
+    public SVGEncoder append(int n) {
+        if (n == Integer.MIN_VALUE) return append("-2147483648");
+
+        asegura(11);
+        if (n < 0) {
+            buffer[posicion++] = '-';
+            n = -n;
+        }
+
+        int fin = posicion + digitos(n);
+        for (int i = fin - 1; i >= posicion; i--) {
+            buffer[i] = (char)('0' + n % 10);
+            n /= 10;
+        }
+        posicion = fin;
+        return this;
+    }
+
+    /**
+     * Escribe lo codificado en la salida y deja el arreglo vacío.
+     * @param salida la salida donde se escribe.
+     * @throws IOException si ocurre un error al escribir en la salida.
+     */
+    public void escribe(Writer salida) throws IOException {
+        salida.write(buffer, 0, posicion);
+        posicion = 0;
+    }
+
+    /* Crece el arreglo si no caben n caracteres más. */
+    private void asegura(int n) {
+        if (posicion + n <= buffer.length) return;
+
+        char[] nuevo = new char[Math.max(buffer.length * 2, posicion + n)];
+        System.arraycopy(buffer, 0, nuevo, 0, posicion);
+        buffer = nuevo;
+    }
+
+    /* Regresa el número de dígitos de un entero no negativo. */
+    private static int digitos(int n) {
+        int digitos = 1;
+        while (n >= 10) {
+            n /= 10;
+            digitos++;
+        }
+        return digitos;
+    }
+}
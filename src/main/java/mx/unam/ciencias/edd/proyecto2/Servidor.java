@@ -0,0 +1,159 @@
+package mx.unam.ciencias.edd.proyecto2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import mx.unam.ciencias.edd.*;
+
+/**
+ * Servidor local de gráficas. Recibe por <code>POST</code> una entrada con el
+ * mismo formato que lee {@link Entrada} (el nombre de la estructura y sus
+ * enteros) y responde con el SVG del graficador correspondiente. El servidor
+ * sólo escucha en la interfaz local y atiende las peticiones en un número
+ * acotado de hilos. Si tiene caché, un <code>GET</code> a
+ * <code>/estadisticas</code> regresa sus contadores.
+ */
+public class Servidor {
+
+    /* Código HTTP de éxito. */
+    private static final int OK = 200;
+    /* Código HTTP de petición inválida. */
+    private static final int PETICION_INVALIDA = 400;
+    /* Código HTTP de método no permitido. */
+    private static final int METODO_NO_PERMITIDO = 405;
+    /* Código HTTP de error interno. */
+    private static final int ERROR_INTERNO = 500;
+
+    /* El servidor HTTP. */
+    private HttpServer servidor;
+    /* El ejecutor de las peticiones. */
+    private ExecutorService ejecutor;
+    /* El caché de gráficas; null si no hay. */
+    private CacheSVG cache;
+    /* La disposición de los árboles. */
+    private TreeLayout layout;
+
+    /**
+     * Construye un servidor en el puerto recibido.
+     * @param puerto el puerto donde escucha el servidor; 0 para que el sistema
+     *        escoja uno libre.
+     * @param hilos el número de hilos para atender peticiones.
+     * @param cache el caché de gráficas, o <code>null</code> para graficar
+     *        cada petición.
+     * @param layout la disposición de los árboles.
+     * @throws IOException si no se puede abrir el puerto.
+     * @throws IllegalArgumentException si el número de hilos no es positivo.
+     */
+    public Servidor(int puerto, int hilos, CacheSVG cache, TreeLayout layout) throws IOException {
+        if (hilos < 1) throw new IllegalArgumentException("El número de hilos debe ser positivo.");
+        this.cache = cache;
+        this.layout = layout;
+        servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 0);
+        servidor.createContext("/", this::atiende);
+        ejecutor = Executors.newFixedThreadPool(hilos);
+        servidor.setExecutor(ejecutor);
+    }
+
+    /**
+     * Inicia el servidor. El método regresa inmediatamente; el servidor sigue
+     * atendiendo peticiones hasta que se llame {@link #detiene}.
+     */
+    public void inicia() {
+        servidor.start();
+    }
+
+    /**
+     * Detiene el servidor.
+     */
+    public void detiene() {
+        servidor.stop(0);
+        ejecutor.shutdown();
+    }
+
+    /**
+     * Regresa el puerto donde escucha el servidor.
+     * @return el puerto donde escucha el servidor.
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /* Atiende una petición. */
+    private void atiende(HttpExchange intercambio) throws IOException {
+        try {
+            if (cache != null && intercambio.getRequestMethod().equals("GET")
+                && intercambio.getRequestURI().getPath().equals("/estadisticas")) {
+                responde(intercambio, OK, cache.toString());
+                return;
+            }
+
+            if (!intercambio.getRequestMethod().equals("POST")) {
+                intercambio.getResponseHeaders().set("Allow", "POST");
+                responde(intercambio, METODO_NO_PERMITIDO, "Sólo se aceptan peticiones POST.");
+                return;
+            }
+
+            byte[] svg;
+            try {
+                Entrada entrada = new Entrada(new String[0]);
+                entrada.lee(intercambio.getRequestBody());
+                Estructuras estructura = Estructuras.getEstructura(entrada.getEstructura());
+                svg = cache != null ? cache.grafica(estructura, entrada.getElementos(), layout)
+                                    : grafica(estructura, entrada.getElementos());
+            } catch (ExcepcionEntrada | IllegalArgumentException e) {
+                responde(intercambio, PETICION_INVALIDA, e.getMessage());
+                return;
+            } catch (IOException | RuntimeException e) {
+                /* Todavía no se envía nada, así que se puede responder 500. */
+                responde(intercambio, ERROR_INTERNO, e.toString());
+                return;
+            }
+            if (svg == null) {
+                responde(intercambio, PETICION_INVALIDA, "Estructura no válida");
+                return;
+            }
+
+            intercambio.getResponseHeaders().set("Content-Type", "image/svg+xml; charset=UTF-8");
+            intercambio.sendResponseHeaders(OK, svg.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(svg);
+            }
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    /* Grafica la estructura en memoria, para enviar los encabezados hasta que
+       la gráfica esté completa; regresa null si la estructura no es válida. */
+    private byte[] grafica(Estructuras estructura, IntLista elementos) throws IOException {
+        StructGrapher grapher = Aplicacion.getGrapher(estructura, elementos, layout);
+        if (grapher == null) return null;
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(salida, StandardCharsets.UTF_8)) {
+            grapher.graph(writer);
+        }
+        return salida.toByteArray();
+    }
+
+    /* Responde con un mensaje de texto y el código recibido. */
+    private void responde(HttpExchange intercambio, int codigo, String mensaje) throws IOException {
+        byte[] cuerpo = (mensaje + "\n").getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        intercambio.sendResponseHeaders(codigo, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+}
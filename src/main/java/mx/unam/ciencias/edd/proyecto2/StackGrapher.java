@@ -1,31 +1,34 @@
 package mx.unam.ciencias.edd.proyecto2;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import mx.unam.ciencias.edd.*;
 
-public class StackGrapher<T> { // Specify generic type T
+public class StackGrapher<T> implements StructGrapher { // Specify generic type T
 
     GraphicSVG grapher = new GraphicSVG();
     
-    private Lista<T> list = new Lista<>();
+    private Coleccion<T> list;
 
     /**
      * Constructor único.
      */
-    public StackGrapher(Lista<T> list) {
+    public StackGrapher(Coleccion<T> list) {
         this.list = list;
     }
 
-    public String graph(){
-        StringBuilder str = new StringBuilder(); // Initialize a StringBuilder
+    @Override public void graph(Writer salida) throws IOException {
         int x = 10, y = 10;
-        int elementos = 1;
-        
+
+        grapher.initializeSVG(salida, 100, 40 * list.getElementos() + 20);
+
         for(T element : list){
-            str.append(grapher.rectangle(x, y, element.toString()));
+            grapher.rectangle(salida, x, y, element.toString());
             y += 40;
         }
 
-        return grapher.initializeSVG(100, 40 * list.getElementos() + 20) + str.toString() + grapher.finishSVG(); 
+        grapher.finishSVG(salida);
     }
 
 }
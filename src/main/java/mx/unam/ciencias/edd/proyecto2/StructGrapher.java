@@ -0,0 +1,35 @@
+package mx.unam.ciencias.edd.proyecto2;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Interfaz para los graficadores de estructuras. Un graficador escribe el
+ * documento SVG de su estructura directamente en una salida, sin construirlo
+ * completo en memoria.
+ */
+public interface StructGrapher {
+
+    /**
+     * Escribe el documento SVG de la estructura en la salida recibida.
+     * @param salida la salida donde se escribe el SVG.
+     * @throws IOException si ocurre un error al escribir en la salida.
+     */
+    public void graph(Writer salida) throws IOException;
+
+    /**
+     * Regresa el documento SVG de la estructura como cadena.
+     * @return el documento SVG de la estructura.
+     */
+    default public String graph() {
+        StringWriter salida = new StringWriter();
+        try {
+            graph(salida);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+        return salida.toString();
+    }
+}
@@ -0,0 +1,304 @@
+package mx.unam.ciencias.edd.proyecto2;
+
+import mx.unam.ciencias.edd.*;
+
+/**
+ * Disposición compacta de un árbol binario, con el algoritmo de
+ * Reingold–Tilford. Cada subárbol se acomoda por separado y después se
+ * acerca a su hermano tanto como lo permiten sus contornos, así que el ancho
+ * es proporcional al número de vértices y no a 2<sup>altura</sup>.
+ *
+ * Los contornos se recorren por hilos entre vértices, como en el algoritmo
+ * original, por lo que la disposición toma tiempo lineal; los recorridos son
+ * iterativos para que los árboles degenerados no agoten la pila de llamadas.
+ *
+ * Las posiciones se dan en unidades: dos vértices del mismo nivel quedan al
+ * menos a dos unidades y un hijo único queda a una unidad de su padre.
+ */
+class TidyLayout<T> {
+
+    /* Separación mínima, en unidades, entre vértices del mismo nivel. */
+    private static final int SEPARACION = 2;
+
+    /* Los vértices en preorden, visitando el derecho antes que el izquierdo. */
+    private VerticeArbolBinario<T>[] vertices;
+    /* El índice del hijo izquierdo de cada vértice, o -1. */
+    private int[] izquierdo;
+    /* El índice del hijo derecho de cada vértice, o -1. */
+    private int[] derecho;
+    /* El nivel de cada vértice. */
+    private int[] nivel;
+    /* La posición horizontal de cada vértice, en unidades. */
+    private int[] x;
+    /* El número de vértices. */
+    private int n;
+    /* La altura del árbol. */
+    private int altura;
+    /* El ancho del árbol, en unidades. */
+    private int ancho;
+
+    /**
+     * Calcula la disposición del árbol recibido.
+     * @param arbol el árbol a disponer.
+     */
+    public TidyLayout(ArbolBinario<T> arbol) {
+        altura = -1;
+        if (arbol.esVacia()) return;
+
+        recolecta(arbol.raiz(), Math.max(arbol.getElementos(), 1));
+        int[] relativa = separa();
+        posiciona(relativa);
+    }
+
+    /* Guarda los vértices en preorden, con sus hijos y sus niveles. */
+    private void recolecta(VerticeArbolBinario<T> raiz, int capacidad) {
+        vertices = nuevoArreglo(capacidad);
+        izquierdo = new int[capacidad];
+        derecho = new int[capacidad];
+        nivel = new int[capacidad];
+
+        VerticeArbolBinario<T>[] pila = nuevoArreglo(capacidad);
+        /* El índice del padre por dos, más uno si es hijo derecho. */
+        int[] padres = new int[capacidad];
+        int tope = 0;
+        pila[tope] = raiz;
+        padres[tope++] = -1;
+
+        while (tope > 0) {
+            VerticeArbolBinario<T> v = pila[--tope];
+            int padre = padres[tope];
+            if (n == vertices.length) crece();
+
+            int i = n++;
+            vertices[i] = v;
+            izquierdo[i] = derecho[i] = -1;
+            if (padre == -1) {
+                nivel[i] = 0;
+            } else {
+                nivel[i] = nivel[padre / 2] + 1;
+                if (padre % 2 == 1) derecho[padre / 2] = i;
+                else izquierdo[padre / 2] = i;
+            }
+            if (nivel[i] > altura) altura = nivel[i];
+
+            if (tope + 2 > pila.length) {
+                VerticeArbolBinario<T>[] nueva = nuevoArreglo(pila.length * 2);
+                System.arraycopy(pila, 0, nueva, 0, tope);
+                pila = nueva;
+                int[] nuevos = new int[pila.length];
+                System.arraycopy(padres, 0, nuevos, 0, tope);
+                padres = nuevos;
+            }
+            if (v.hayIzquierdo()) {
+                pila[tope] = v.izquierdo();
+                padres[tope++] = 2 * i;
+            }
+            if (v.hayDerecho()) {
+                pila[tope] = v.derecho();
+                padres[tope++] = 2 * i + 1;
+            }
+        }
+    }
+
+    /* Calcula la posición de cada vértice relativa a su padre, de las hojas
+       hacia la raíz. Los contornos izquierdo y derecho de un subárbol se
+       siguen con sigIzq y sigDer, que son el siguiente vértice del contorno
+       en el nivel de abajo (un hijo o un hilo), a la distancia despIzq y
+       despDer. */
+    private int[] separa() {
+        int[] relativa = new int[n];
+        int[] sigIzq = new int[n], sigDer = new int[n];
+        int[] despIzq = new int[n], despDer = new int[n];
+        /* El último vértice de cada contorno y su posición relativa a la raíz
+           del subárbol. */
+        int[] fondoIzq = new int[n], fondoDer = new int[n];
+        int[] xFondoIzq = new int[n], xFondoDer = new int[n];
+        int[] alturas = new int[n];
+
+        /* En preorden el padre va antes que sus hijos. */
+        for (int v = n - 1; v >= 0; v--) {
+            int l = izquierdo[v], r = derecho[v];
+
+            if (l == -1 && r == -1) {
+                sigIzq[v] = sigDer[v] = -1;
+                fondoIzq[v] = fondoDer[v] = v;
+                continue;
+            }
+
+            if (l == -1 || r == -1) {
+                int hijo = l != -1 ? l : r;
+                int d = l != -1 ? -SEPARACION / 2 : SEPARACION / 2;
+                relativa[hijo] = d;
+                sigIzq[v] = sigDer[v] = hijo;
+                despIzq[v] = despDer[v] = d;
+                fondoIzq[v] = fondoIzq[hijo];
+                xFondoIzq[v] = d + xFondoIzq[hijo];
+                fondoDer[v] = fondoDer[hijo];
+                xFondoDer[v] = d + xFondoDer[hijo];
+                alturas[v] = alturas[hijo] + 1;
+                continue;
+            }
+
+            /* Recorre el contorno derecho de l y el izquierdo de r mientras
+               los dos tengan vértices, buscando la separación mínima. */
+            int a = l, xa = 0, b = r, xb = 0, s = SEPARACION;
+            while (true) {
+                if (xa - xb + SEPARACION > s) s = xa - xb + SEPARACION;
+                if (sigDer[a] == -1 || sigIzq[b] == -1) break;
+                xa += despDer[a];
+                a = sigDer[a];
+                xb += despIzq[b];
+                b = sigIzq[b];
+            }
+            int m = (s + 1) / 2;
+
+            relativa[l] = -m;
+            relativa[r] = m;
+            sigIzq[v] = l;
+            despIzq[v] = -m;
+            sigDer[v] = r;
+            despDer[v] = m;
+            alturas[v] = Math.max(alturas[l], alturas[r]) + 1;
+
+            if (alturas[l] > alturas[r]) {
+                /* El contorno derecho sigue en el de l debajo de r. */
+                int f = fondoDer[r];
+                sigDer[f] = sigDer[a];
+                despDer[f] = (-m + xa + despDer[a]) - (m + xFondoDer[r]);
+                fondoIzq[v] = fondoIzq[l];
+                xFondoIzq[v] = -m + xFondoIzq[l];
+                fondoDer[v] = fondoDer[l];
+                xFondoDer[v] = -m + xFondoDer[l];
+            } else if (alturas[r] > alturas[l]) {
+                /* El contorno izquierdo sigue en el de r debajo de l. */
+                int f = fondoIzq[l];
+                sigIzq[f] = sigIzq[b];
+                despIzq[f] = (m + xb + despIzq[b]) - (-m + xFondoIzq[l]);
+                fondoIzq[v] = fondoIzq[r];
+                xFondoIzq[v] = m + xFondoIzq[r];
+                fondoDer[v] = fondoDer[r];
+                xFondoDer[v] = m + xFondoDer[r];
+            } else {
+                fondoIzq[v] = fondoIzq[l];
+                xFondoIzq[v] = -m + xFondoIzq[l];
+                fondoDer[v] = fondoDer[r];
+                xFondoDer[v] = m + xFondoDer[r];
+            }
+        }
+
+        return relativa;
+    }
+
+    /* Convierte las posiciones relativas en absolutas, con la más a la
+       izquierda en cero. */
+    private void posiciona(int[] relativa) {
+        x = new int[n];
+        int minimo = 0, maximo = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (izquierdo[i] != -1) x[izquierdo[i]] = x[i] + relativa[izquierdo[i]];
+            if (derecho[i] != -1) x[derecho[i]] = x[i] + relativa[derecho[i]];
+            if (x[i] < minimo) minimo = x[i];
+            if (x[i] > maximo) maximo = x[i];
+        }
+
+        for (int i = 0; i < n; i++) x[i] -= minimo;
+        ancho = maximo - minimo;
+    }
+
+    /* Crece los arreglos de los vértices al doble. */
+    private void crece() {
+        int capacidad = vertices.length * 2;
+        VerticeArbolBinario<T>[] nuevos = nuevoArreglo(capacidad);
+        System.arraycopy(vertices, 0, nuevos, 0, n);
+        vertices = nuevos;
+        izquierdo = copia(izquierdo, capacidad);
+        derecho = copia(derecho, capacidad);
+        nivel = copia(nivel, capacidad);
+    }
+
+    /* Copia un arreglo de enteros en uno nuevo de la capacidad recibida. */
+    private int[] copia(int[] arreglo, int capacidad) {
+        int[] nuevo = new int[capacidad];
+        System.arraycopy(arreglo, 0, nuevo, 0, n);
+        return nuevo;
+    }
+
+    /* Crea un arreglo genérico de vértices. */
+    @SuppressWarnings("unchecked")
+    private VerticeArbolBinario<T>[] nuevoArreglo(int capacidad) {
+        return (VerticeArbolBinario<T>[])new VerticeArbolBinario[capacidad];
+    }
+
+    /**
+     * Regresa el número de vértices.
+     * @return el número de vértices.
+     */
+    public int getVertices() {
+        return n;
+    }
+
+    /**
+     * Regresa el <em>i</em>-ésimo vértice. Los vértices están en preorden,
+     * visitando el subárbol derecho antes que el izquierdo.
+     * @param i el índice del vértice.
+     * @return el <em>i</em>-ésimo vértice.
+     */
+    public VerticeArbolBinario<T> getVertice(int i) {
+        return vertices[i];
+    }
+
+    /**
+     * Regresa el índice del hijo izquierdo del <em>i</em>-ésimo vértice.
+     * @param i el índice del vértice.
+     * @return el índice del hijo izquierdo, o -1 si no tiene.
+     */
+    public int getIzquierdo(int i) {
+        return izquierdo[i];
+    }
+
+    /**
+     * Regresa el índice del hijo derecho del <em>i</em>-ésimo vértice.
+     * @param i el índice del vértice.
+     * @return el índice del hijo derecho, o -1 si no tiene.
+     */
+    public int getDerecho(int i) {
+        return derecho[i];
+    }
+
+    /**
+     * Regresa la posición horizontal del <em>i</em>-ésimo vértice, en
+     * unidades a partir del vértice más a la izquierda.
+     * @param i el índice del vértice.
+     * @return la posición horizontal del vértice.
+     */
+    public int getX(int i) {
+        return x[i];
+    }
+
+    /**
+     * Regresa el nivel del <em>i</em>-ésimo vértice.
+     * @param i el índice del vértice.
+     * @return el nivel del vértice.
+     */
+    public int getNivel(int i) {
+        return nivel[i];
+    }
+
+    /**
+     * Regresa la altura del árbol.
+     * @return la altura del árbol, o -1 si es vacío.
+     */
+    public int getAltura() {
+        return altura;
+    }
+
+    /**
+     * Regresa el ancho del árbol, en unidades.
+     * @return la distancia entre el vértice más a la izquierda y el más a la
+     *         derecha.
+     */
+    public int getAncho() {
+        return ancho;
+    }
+}
@@ -0,0 +1,171 @@
+package mx.unam.ciencias.edd.proyecto2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tokenizador de la entrada. Lee bytes de un flujo en un arreglo de tamaño
+ * fijo, separa las palabras por espacios en blanco, ignora desde cualquier
+ * palabra que empiece con <code>#</code> hasta el fin de la línea, y convierte
+ * las palabras en enteros sin crear objetos por palabra. También puede leer
+ * directamente de una región de memoria, como la de un archivo mapeado.
+ */
+public class Tokenizador {
+
+    /* Tamaño del arreglo de lectura. */
+    private static final int TAMANO_LECTURA = 1 << 16;
+
+    /* El flujo de entrada; null si se lee de una región. */
+    private InputStream entrada;
+    /* La región de entrada; null si se lee de un flujo. */
+    private ByteBuffer region;
+    /* El arreglo de lectura. */
+    private byte[] lectura;
+    /* Posición actual en el arreglo de lectura. */
+    private int posicion;
+    /* Número de bytes válidos en el arreglo de lectura. */
+    private int limite;
+    /* La palabra actual. */
+    private byte[] palabra;
+    /* La longitud de la palabra actual. */
+    private int longitud;
+    /* El último entero leído. */
+    private int entero;
+    /* Si la entrada terminó dentro de un comentario. */
+    private boolean comentario;
+
+    /**
+     * Construye un tokenizador sobre el flujo recibido.
+     * @param entrada el flujo de entrada.
+     */
+    public Tokenizador(InputStream entrada) {
+        this.entrada = entrada;
+        this.lectura = new byte[TAMANO_LECTURA];
+        this.palabra = new byte[32];
+    }
+
+    /**
+     * Construye un tokenizador sobre la región recibida. El tokenizador lee
+     * desde la posición de la región hasta su límite.
+     * @param region la región de entrada.
+     */
+    public Tokenizador(ByteBuffer region) {
+        this.region = region;
+        this.palabra = new byte[32];
+    }
+
+    /**
+     * Regresa la siguiente palabra de la entrada.
+     * @return la siguiente palabra, o <code>null</code> si ya no hay más.
+     * @throws IOException si ocurre un error al leer la entrada.
+     */
+    public String siguientePalabra() throws IOException {
+        if (!leePalabra()) return null;
+        return palabraActual();
+    }
+
+    /**
+     * Lee el siguiente entero de la entrada. El entero leído se obtiene con
+     * {@link #getEntero}.
+     * @return <code>true</code> si se leyó un entero, <code>false</code> si
+     *         ya no hay más palabras.
+     * @throws IOException si ocurre un error al leer la entrada.
+     * @throws NumberFormatException si la siguiente palabra no es un entero;
+     *         el mensaje de la excepción es la palabra.
+     */
+    public boolean siguienteEntero() throws IOException {
+        if (!leePalabra()) return false;
+
+        int i = 0;
+        boolean negativo = false;
+        if (palabra[0] == '-' || palabra[0] == '+') {
+            negativo = palabra[0] == '-';
+            i++;
+        }
+        if (i == longitud) throw new NumberFormatException(palabraActual());
+
+        long valor = 0;
+        for (; i < longitud; i++) {
+            int digito = palabra[i] - '0';
+            if (digito < 0 || digito > 9) throw new NumberFormatException(palabraActual());
+            valor = valor * 10 + digito;
+            if (valor > (long)Integer.MAX_VALUE + 1) throw new NumberFormatException(palabraActual());
+        }
+        if (negativo) valor = -valor;
+        if (valor > Integer.MAX_VALUE) throw new NumberFormatException(palabraActual());
+
+        entero = (int)valor;
+        return true;
+    }
+
+    /**
+     * Regresa el último entero leído por {@link #siguienteEntero}.
+     * @return el último entero leído.
+     */
+    public int getEntero() {
+        return entero;
+    }
+
+    /**
+     * Nos dice si la entrada terminó dentro de un comentario, es decir, si
+     * después del último <code>#</code> ya no hubo un salto de línea.
+     * @return <code>true</code> si la entrada terminó dentro de un
+     *         comentario, <code>false</code> en otro caso.
+     */
+    public boolean terminaEnComentario() {
+        return comentario;
+    }
+
+    /* Lee la siguiente palabra en el arreglo de palabra, saltando espacios y
+       comentarios. Regresa false si se acabó la entrada. */
+    private boolean leePalabra() throws IOException {
+        int b;
+        while (true) {
+            while ((b = siguienteByte()) != -1 && esEspacio(b));
+            if (b == -1) return false;
+            if (b != '#') break;
+            while ((b = siguienteByte()) != -1 && b != '\n' && b != '\r');
+            if (b == -1) comentario = true;
+        }
+
+        longitud = 0;
+        do {
+            if (longitud == palabra.length) {
+                byte[] nueva = new byte[palabra.length * 2];
+                System.arraycopy(palabra, 0, nueva, 0, longitud);
+                palabra = nueva;
+            }
+            palabra[longitud++] = (byte)b;
+        } while ((b = siguienteByte()) != -1 && !esEspacio(b));
+
+        return true;
+    }
+
+    /* Regresa el siguiente byte de la entrada, o -1 si se acabó. */
+    private int siguienteByte() throws IOException {
+        if (region != null)
+            return region.hasRemaining() ? region.get() & 0xff : -1;
+        if (posicion == limite) {
+            limite = entrada.read(lectura, 0, lectura.length);
+            posicion = 0;
+            if (limite <= 0) {
+                limite = 0;
+                return -1;
+            }
+        }
+        return lectura[posicion++] & 0xff;
+    }
+
+    /* Nos dice si el byte es un espacio en blanco, como \s en las expresiones
+       regulares. */
+    static boolean esEspacio(int b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f' || b == 0x0b;
+    }
+
+    /* Regresa la palabra actual como cadena. */
+    private String palabraActual() {
+        return new String(palabra, 0, longitud, StandardCharsets.UTF_8);
+    }
+}
@@ -1,5 +1,8 @@
 package mx.unam.ciencias.edd.proyecto2;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import mx.unam.ciencias.edd.*;
 
 public class TreeAVLGrapher<T extends Comparable<T>> extends TreeGrapher<T> {
@@ -8,7 +11,11 @@ public class TreeAVLGrapher<T extends Comparable<T>> extends TreeGrapher<T> {
         super(arbol);
     }
 
-    protected String graficaVertice(int x, int y, VerticeArbolBinario<T> vertice) {
+    public TreeAVLGrapher(ArbolAVL<T> arbol, TreeLayout layout) {
+        super(arbol, layout);
+    }
+
+    @Override protected void graficaVertice(Writer salida, int x, int y, VerticeArbolBinario<T> vertice) throws IOException {
         String textoVertice = vertice.toString();
         int ultimoEspacio = textoVertice.lastIndexOf(' ');
         String balance = String.format("(%s)", textoVertice.substring(ultimoEspacio + 1));
@@ -17,12 +24,8 @@ public class TreeAVLGrapher<T extends Comparable<T>> extends TreeGrapher<T> {
         if (esDerecho(vertice)) centroTextoX += (int) Math.ceil(balance.length() / 2) * 20;
         else if (esIzquierdo(vertice)) centroTextoX += - (int) Math.ceil(balance.length() / 2) * 20;
 
-        StringBuilder SVG = new StringBuilder();
-
-        SVG.append(grapher.text(centroTextoX, y - 40 - 10,balance, "black", 20));
-        SVG.append(grapher.circle(x, y, "white", vertice.get().toString(), 40));
-
-        return SVG.toString();
+        grapher.text(salida, centroTextoX, y - 40 - 10,balance, "black", 20);
+        grapher.circle(salida, x, y, "white", vertice.get().toString(), 40);
     }
     
 }
@@ -1,52 +1,253 @@
 package mx.unam.ciencias.edd.proyecto2;
 
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 import mx.unam.ciencias.edd.*;
 
-public class TreeGrapher<T> { // Specify generic type T
+public class TreeGrapher<T> implements StructGrapher { // Specify generic type T
+
+    /* Tarea que grafica un subárbol en su propio buffer. Mientras le queden
+       niveles grafica sólo su vértice y deja cada subárbol a otra tarea. */
+    private class Subarbol extends RecursiveAction {
+
+        /* La raíz del subárbol. */
+        private VerticeArbolBinario<T> vertice;
+        /* La posición y los límites del subárbol. */
+        private int x, y, izq, der;
+        /* Niveles que faltan para graficar el subárbol completo. */
+        private int niveles;
+        /* Lo graficado por la tarea. */
+        private CharArrayWriter buffer;
+        /* Las tareas de los subárboles; null si no hay o no se separaron. */
+        private Subarbol derecho, izquierdo;
+
+        /* Construye la tarea para el subárbol recibido. */
+        private Subarbol(VerticeArbolBinario<T> vertice, int x, int y, int izq, int der, int niveles) {
+            this.vertice = vertice;
+            this.x = x;
+            this.y = y;
+            this.izq = izq;
+            this.der = der;
+            this.niveles = niveles;
+        }
+
+        /* Grafica el subárbol, o su vértice y separa los subárboles. */
+        @Override protected void compute() {
+            buffer = new CharArrayWriter();
+            try {
+                if (niveles == 0) {
+                    graph(vertice, x, y, buffer, izq, der);
+                    return;
+                }
+                graficaRaiz(vertice, x, y, buffer, izq, der);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+
+            if (vertice.hayDerecho()) {
+                derecho = new Subarbol(vertice.derecho(), (x+der)/2, y + 100, x, der, niveles - 1);
+                derecho.fork();
+            }
+            if (vertice.hayIzquierdo()) {
+                izquierdo = new Subarbol(vertice.izquierdo(), (x+izq)/2, y + 100, izq, x, niveles - 1);
+                izquierdo.fork();
+            }
+        }
+
+        /* Espera cada tarea y escribe su buffer, en el orden secuencial. */
+        private void escribe(Writer salida) throws IOException {
+            join();
+            buffer.writeTo(salida);
+            buffer = null;
+            if (derecho != null) derecho.escribe(salida);
+            if (izquierdo != null) izquierdo.escribe(salida);
+        }
+    }
+
+    /* Tarea que grafica un bloque de vértices de la disposición compacta en
+       su propio buffer. */
+    private class Bloque extends RecursiveAction {
+
+        /* El primer vértice del bloque y el siguiente al último. */
+        private int inicio, fin;
+        /* La altura de la raíz. */
+        private int y;
+        /* Lo graficado por la tarea. */
+        private CharArrayWriter buffer;
+
+        /* Construye la tarea para el bloque recibido. */
+        private Bloque(int inicio, int fin, int y) {
+            this.inicio = inicio;
+            this.fin = fin;
+            this.y = y;
+        }
+
+        /* Grafica los vértices del bloque. */
+        @Override protected void compute() {
+            buffer = new CharArrayWriter();
+            try {
+                graphCompacta(buffer, y, inicio, fin);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
+
+        /* Espera la tarea y escribe su buffer. */
+        private void escribe(Writer salida) throws IOException {
+            join();
+            buffer.writeTo(salida);
+            buffer = null;
+        }
+    }
 
     GraphicSVG grapher = new GraphicSVG();
     
+    /* Número mínimo de vértices para graficar en paralelo. */
+    private static final int UMBRAL_PARALELO = 1 << 14;
+    /* Vértices por tarea de la disposición compacta. */
+    private static final int BLOQUE = 1 << 12;
+    /* Profundidad máxima con la que el ancho clásico no desborda un int. */
+    private static final int PROFUNDIDAD_CLASICA = 24;
+    /* Pixeles por unidad de la disposición compacta. */
+    private static final int UNIDAD = 50;
+    /* Margen horizontal de la disposición compacta. */
+    private static final int MARGEN = 50;
+
     ArbolBinario<T> arbol;
     private Lines typeLine = Lines.NEITHER; 
+    private TreeLayout layout;
+    /* La disposición compacta calculada; null si se usa la clásica. */
+    private TidyLayout<T> compacta;
 
     /**
-     * Constructor único.
+     * Constructor con la disposición clásica.
      */
     public TreeGrapher(ArbolBinario<T> arbol) {
+        this(arbol, TreeLayout.CLASSIC);
+    }
+
+    /**
+     * Constructor con la disposición de los vértices.
+     */
+    public TreeGrapher(ArbolBinario<T> arbol, TreeLayout layout) {
         this.arbol = arbol;
+        this.layout = layout;
     }
 
-    public String graph(){
+    @Override public void graph(Writer salida) throws IOException {
+        int depth = dispone();
+        int x = anchoArbol(depth), y = 80;
+        grapher.initializeSVG(salida, x, (80 * (depth + 1) + 20 * (depth) + 20) + 40);
+        treeGraph(salida, x, y, depth);
+        grapher.finishSVG(salida);
+    }
+
+    /**
+     * Calcula la disposición de los vértices. Si la disposición clásica no
+     * cabe en el ancho de un int se usa la compacta.
+     * @return la altura del árbol.
+     */
+    protected int dispone() {
+        compacta = null;
+        if (layout == TreeLayout.TIDY) {
+            compacta = new TidyLayout<>(arbol);
+            return compacta.getAltura();
+        }
+
         int depth = arbol.altura();
-        int x = (80 * (1 << depth) + 20 * ((1 << depth) - 1) + 20), y = 80;
-        return grapher.initializeSVG(x, (80 * (depth + 1) + 20 * (depth) + 20) + 40) + treeGraph(x, y, depth) + grapher.finishSVG();
+        if (depth > PROFUNDIDAD_CLASICA) compacta = new TidyLayout<>(arbol);
+        return depth;
     }
 
-    public String treeGraph(int x, int y, int depth){
-        StringBuilder svg = new StringBuilder();
+    /**
+     * Regresa el ancho que ocupa el árbol, según su disposición.
+     * @param depth la altura del árbol.
+     * @return el ancho que ocupa el árbol.
+     */
+    protected int anchoArbol(int depth) {
+        if (compacta != null) return UNIDAD * compacta.getAncho() + 2 * MARGEN;
+        return 80 * (1 << depth) + 20 * ((1 << depth) - 1) + 20;
+    }
 
-        graph(arbol.raiz(), x/2, y, svg, 0, x);
+    /**
+     * Grafica los vértices y aristas del árbol. Los árboles grandes se grafican
+     * en paralelo, por subárboles o bloques en buffers separados que se
+     * escriben en el orden secuencial, así que el resultado es el mismo.
+     */
+    public void treeGraph(Writer salida, int x, int y, int depth) throws IOException {
+        boolean paralelo = arbol.getElementos() >= UMBRAL_PARALELO;
+        if (compacta != null && paralelo) graphCompactaParalelo(salida, y);
+        else if (compacta != null) graphCompacta(salida, y, 0, compacta.getVertices());
+        else if (paralelo) graphParalelo(salida, x, y);
+        else graph(arbol.raiz(), x/2, y, salida, 0, x);
+    }
+
+    /* Grafica el árbol separando en tareas los subárboles de los primeros
+       niveles, suficientes para unas ocho tareas por hilo. */
+    private void graphParalelo(Writer salida, int x, int y) throws IOException {
+        int niveles = 32 - Integer.numberOfLeadingZeros(ForkJoinPool.getCommonPoolParallelism()) + 3;
+        Subarbol raiz = new Subarbol(arbol.raiz(), x/2, y, 0, x, niveles);
+        ForkJoinPool.commonPool().execute(raiz);
+        try {
+            raiz.escribe(salida);
+        } catch (UncheckedIOException uioe) {
+            throw uioe.getCause();
+        }
+    }
 
-        return svg.toString();
+    /* Grafica la disposición compacta por bloques de vértices. */
+    private void graphCompactaParalelo(Writer salida, int y) throws IOException {
+        Lista<Bloque> bloques = new Lista<>();
+        for (int i = 0; i < compacta.getVertices(); i += BLOQUE) {
+            Bloque bloque = new Bloque(i, Math.min(i + BLOQUE, compacta.getVertices()), y);
+            ForkJoinPool.commonPool().execute(bloque);
+            bloques.agrega(bloque);
+        }
+        try {
+            for (Bloque bloque : bloques) bloque.escribe(salida);
+        } catch (UncheckedIOException uioe) {
+            throw uioe.getCause();
+        }
     }
 
-    private void graph(VerticeArbolBinario<T> vertice, int x, int y, StringBuilder svg, int izq, int der){
+    /* Grafica los vértices [inicio, fin) de la disposición compacta, en el
+       mismo orden que la clásica. */
+    private void graphCompacta(Writer salida, int y, int inicio, int fin) throws IOException {
+        for (int i = inicio; i < fin; i++) {
+            int x = MARGEN + UNIDAD * compacta.getX(i), vy = y + 100 * compacta.getNivel(i);
+            int der = compacta.getDerecho(i), izq = compacta.getIzquierdo(i);
+
+            if(der != -1) grapher.line(salida, x, vy, MARGEN + UNIDAD * compacta.getX(der), vy + 100, typeLine);
+            if(izq != -1) grapher.line(salida, x, vy, MARGEN + UNIDAD * compacta.getX(izq), vy + 100, typeLine);
+
+            graficaVertice(salida, x, vy, compacta.getVertice(i));
+        }
+    }
+
+    private void graph(VerticeArbolBinario<T> vertice, int x, int y, Writer salida, int izq, int der) throws IOException {
         if(vertice == null) return;
 
-        if(vertice.hayDerecho()) svg.append(grapher.line(x, y, (x+der)/2, y + 100, typeLine));
-        if(vertice.hayIzquierdo()) svg.append(grapher.line(x, y, (x+izq)/2, y + 100, typeLine));
+        graficaRaiz(vertice, x, y, salida, izq, der);
+
+        if(vertice.hayDerecho()) graph(vertice.derecho(), (x+der)/2, y + 100, salida, x, der);
+        if(vertice.hayIzquierdo()) graph(vertice.izquierdo(), (x+izq)/2, y + 100, salida, izq, x);
+    }
 
-        Color color = Color.NINGUNO;
-        String c = "white";
-        
-        svg.append(graficaVertice(x,y, vertice));
+    /* Grafica las aristas del vértice a sus hijos y el vértice. */
+    private void graficaRaiz(VerticeArbolBinario<T> vertice, int x, int y, Writer salida, int izq, int der) throws IOException {
+        if(vertice.hayDerecho()) grapher.line(salida, x, y, (x+der)/2, y + 100, typeLine);
+        if(vertice.hayIzquierdo()) grapher.line(salida, x, y, (x+izq)/2, y + 100, typeLine);
 
-        if(vertice.hayDerecho()) graph(vertice.derecho(), (x+der)/2, y + 100, svg, x, der);
-        if(vertice.hayIzquierdo()) graph(vertice.izquierdo(), (x+izq)/2, y + 100, svg, izq, x);
+        graficaVertice(salida, x, y, vertice);
     }
 
-    protected String graficaVertice(int x, int y, VerticeArbolBinario<T> vertice) {
-        return grapher.circle(x, y, "white",  vertice.toString(), 40);
+    protected void graficaVertice(Writer salida, int x, int y, VerticeArbolBinario<T> vertice) throws IOException {
+        grapher.circle(salida, x, y, "white",  vertice.toString(), 40);
     }
 
     protected boolean esDerecho(VerticeArbolBinario<T> vertice) {
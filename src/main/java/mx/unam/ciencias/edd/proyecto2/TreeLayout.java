@@ -0,0 +1,26 @@
+package mx.unam.ciencias.edd.proyecto2;
+
+/**
+ * Enumeración para la disposición de los vértices de los árboles.
+ */
+public enum TreeLayout {
+    /** Cada nivel parte a la mitad el espacio de su padre; el ancho crece
+        como 2<sup>altura</sup>. */
+    CLASSIC,
+    /** Disposición compacta de Reingold–Tilford; el ancho crece con el
+        número de vértices. */
+    TIDY;
+
+    /**
+     * Regresa la disposición correspondiente al nombre recibido, sin
+     * importar mayúsculas.
+     * @param nombre el nombre de la disposición.
+     * @return la disposición correspondiente, o <code>null</code> si no hay.
+     */
+    public static TreeLayout getLayout(String nombre) {
+        for (TreeLayout layout : values())
+            if (layout.name().equalsIgnoreCase(nombre))
+                return layout;
+        return null;
+    }
+}
@@ -1,6 +1,9 @@
 
 package mx.unam.ciencias.edd.proyecto2;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import mx.unam.ciencias.edd.*;
 
 public class TreeRedBlackGrapher<T extends Comparable<T>> extends TreeGrapher<T> {
@@ -9,10 +12,14 @@ public class TreeRedBlackGrapher<T extends Comparable<T>> extends TreeGrapher<T>
         super(tree);
     }
 
-    protected String graficaVertice( int x, int y, VerticeArbolBinario<T> vertice) {
+    public TreeRedBlackGrapher(ArbolRojinegro<T> tree, TreeLayout layout) {
+        super(tree, layout);
+    }
+
+    @Override protected void graficaVertice(Writer salida, int x, int y, VerticeArbolBinario<T> vertice) throws IOException {
         Color color = ((ArbolRojinegro<T>) arbol).getColor(vertice);
         String colorSVG = (color == Color.ROJO) ? "red" : "black";
-        return grapher.circle(x, y, colorSVG, vertice.get().toString(), 40);
+        grapher.circle(salida, x, y, colorSVG, vertice.get().toString(), 40);
     }
     
 }